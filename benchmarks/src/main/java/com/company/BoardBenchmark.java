@@ -0,0 +1,103 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class BoardBenchmark {
+    @Param({"startpos", "ruy lopez", "sicilian", "check", "mate"})
+    public String position;
+
+    private Position state;
+    private Board board;
+    private Board headless;
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private int[] legal;
+    private Color us;
+
+    @Setup
+    public void setup() {
+        state = SmpBenchmark.play(line(position));
+        us = state.sideToMove();
+        legal = Arrays.copyOf(moves, MoveGenerator.generate(state, us, moves, 0));
+        board = new Board(state);
+        board.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        headless = new Board(state);
+        headless.setRenderSink(RenderSink.HEADLESS);
+    }
+
+    private static String line(String name) {
+        // the JMH annotation shadows the hand-rolled Benchmark in this package
+        for (String[] entry : com.company.Benchmark.POSITIONS) {
+            if (entry[0].equals(name)) {
+                return entry[1];
+            }
+        }
+        throw new IllegalArgumentException("Unknown benchmark position " + name);
+    }
+
+    @Benchmark
+    public int generate() {
+        return MoveGenerator.generate(state, us, moves, 0);
+    }
+
+    @Benchmark
+    public int calculatePossibleMoves() {
+        return board.calculatePossibleMoves(us, moves);
+    }
+
+    @Benchmark
+    public long makeUnmake() {
+        long key = 0;
+        for (int move : legal) {
+            state.makeMove(move);
+            key ^= state.key();
+            state.unmakeMove();
+        }
+        return key;
+    }
+
+    @Benchmark
+    public boolean isCheck() {
+        return state.isCheck(us);
+    }
+
+    @Benchmark
+    public boolean isGameOver() {
+        return board.isGameOver();
+    }
+
+    @Benchmark
+    public void display() {
+        board.display();
+    }
+
+    @Benchmark
+    public void displayHeadless() {
+        headless.display();
+    }
+
+    @Benchmark
+    public long perft3() {
+        return new Perft().perft(state, 3);
+    }
+}
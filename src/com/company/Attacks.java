@@ -0,0 +1,162 @@
+package com.company;
+
+import static com.company.Board.Direction;
+
+final class Attacks {
+    static final long[] KNIGHT = new long[Position.SQUARES];
+    static final long[] KING = new long[Position.SQUARES];
+    static final long[][] PAWN = new long[Color.values().length][Position.SQUARES];
+    static final long[][] BETWEEN = new long[Position.SQUARES][Position.SQUARES];
+    static final long[][] LINE = new long[Position.SQUARES][Position.SQUARES];
+    private static final int[][] KNIGHT_OFFSETS = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+    private static final Magic[] ROOK = new Magic[Position.SQUARES];
+    private static final Magic[] BISHOP = new Magic[Position.SQUARES];
+    private static final long[] ROOK_MAGICS = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+            0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+            0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+            0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+            0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+            0x0050500500080100L, 0x0000020080040080L, 0x0C10010400420810L, 0x1040008200005104L,
+            0x01808240088004A0L, 0x0882804004802000L, 0x0880402001001100L, 0x2000210409001000L,
+            0x2000480131001500L, 0x0000800400800200L, 0x000002380C001003L, 0x4600084882000431L,
+            0x0080002000504000L, 0x0300500020004002L, 0x0040408200220011L, 0x0010040008004040L,
+            0x0000080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+            0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+            0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x20C0090901061081L, 0x0024040094030104L, 0x8210810200290200L, 0x0011040484620000L,
+            0x0081104002221000L, 0x0009012011001350L, 0x0081010802400380L, 0x0000420210010408L,
+            0x0008105002280050L, 0x0001028484040044L, 0x2A00880810408804L, 0x7020022282000100L,
+            0x0084040420100A50L, 0x000401010840E000L, 0x2020020210420888L, 0x0008084202012010L,
+            0x2010400810018800L, 0x0445122008020840L, 0x0804100808002008L, 0x0008002104110100L,
+            0x0061005820080800L, 0x2001000200820100L, 0x480C210084010800L, 0x3004442500480420L,
+            0x1010102240048100L, 0x00182009084220A3L, 0x8803090A10004205L, 0x0208080040202020L,
+            0x000C044084010040L, 0x00A1010002004106L, 0x6008210020640202L, 0x1600902112860801L,
+            0x00042008C1220200L, 0x010C042002440140L, 0x5022080200040820L, 0x0402004042940100L,
+            0x0860108400008020L, 0x000C080022021000L, 0x0264080652822100L, 0x4005031221010401L,
+            0x0004502410008400L, 0x000500B010A20400L, 0x0415094050080800L, 0x080000201800A104L,
+            0x4022A80304000110L, 0x4012140802028020L, 0x40200104010100A0L, 0x12810806008B0C41L,
+            0x0020441008080000L, 0x2002120084045420L, 0x0704020062080002L, 0x0000001084040001L,
+            0x0322200891240200L, 0xF040200210024800L, 0x0140824832008042L, 0x000210020A004602L,
+            0x0083042805141020L, 0x002C12009A011000L, 0x0041A00044140400L, 0x00004004020A0202L,
+            0x0000140010020210L, 0x2864160811012200L, 0x2060080841082A17L, 0xA010041108003100L
+    };
+
+    static {
+        for (int square = 0; square < Position.SQUARES; square++) {
+            int x = square & 7;
+            int y = square >>> 3;
+            for (int[] offset : KNIGHT_OFFSETS) {
+                KNIGHT[square] |= bit(x + offset[0], y + offset[1]);
+            }
+            for (Direction direction : Direction.values()) {
+                KING[square] |= bit(x + direction.xOffset, y + direction.yOffset);
+            }
+            PAWN[Color.WHITE.ordinal()][square] = bit(x - 1, y + 1) | bit(x + 1, y + 1);
+            PAWN[Color.BLACK.ordinal()][square] = bit(x - 1, y - 1) | bit(x + 1, y - 1);
+            ROOK[square] = new Magic(square, ROOK_MAGICS[square], false);
+            BISHOP[square] = new Magic(square, BISHOP_MAGICS[square], true);
+        }
+        for (int from = 0; from < Position.SQUARES; from++) {
+            for (int to = 0; to < Position.SQUARES; to++) {
+                long ends = 1L << from | 1L << to;
+                if ((rook(from, 0L) & 1L << to) != 0) {
+                    BETWEEN[from][to] = rook(from, 1L << to) & rook(to, 1L << from);
+                    LINE[from][to] = rook(from, 0L) & rook(to, 0L) | ends;
+                } else if ((bishop(from, 0L) & 1L << to) != 0) {
+                    BETWEEN[from][to] = bishop(from, 1L << to) & bishop(to, 1L << from);
+                    LINE[from][to] = bishop(from, 0L) & bishop(to, 0L) | ends;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    static long rook(int square, long occupied) {
+        return ROOK[square].attacks(occupied);
+    }
+
+    static long bishop(int square, long occupied) {
+        return BISHOP[square].attacks(occupied);
+    }
+
+    static long queen(int square, long occupied) {
+        return ROOK[square].attacks(occupied) | BISHOP[square].attacks(occupied);
+    }
+
+    private static long bit(int x, int y) {
+        return x >= 0 && x < 8 && y >= 0 && y < 8 ? 1L << (y * 8 + x) : 0L;
+    }
+
+    private static boolean isDiagonal(Direction direction) {
+        return direction.xOffset != 0 && direction.yOffset != 0;
+    }
+
+    private static long slide(int square, long occupied, boolean diagonal) {
+        long attacks = 0L;
+        for (Direction direction : Direction.values()) {
+            if (isDiagonal(direction) != diagonal) {
+                continue;
+            }
+            int x = (square & 7) + direction.xOffset;
+            int y = (square >>> 3) + direction.yOffset;
+            for (long bit = bit(x, y); bit != 0; bit = bit(x, y)) {
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                x += direction.xOffset;
+                y += direction.yOffset;
+            }
+        }
+        return attacks;
+    }
+
+    private static long relevantMask(int square, boolean diagonal) {
+        long mask = 0L;
+        for (Direction direction : Direction.values()) {
+            if (isDiagonal(direction) != diagonal) {
+                continue;
+            }
+            int x = (square & 7) + direction.xOffset;
+            int y = (square >>> 3) + direction.yOffset;
+            while (bit(x + direction.xOffset, y + direction.yOffset) != 0) {
+                mask |= bit(x, y);
+                x += direction.xOffset;
+                y += direction.yOffset;
+            }
+        }
+        return mask;
+    }
+
+    private static final class Magic {
+        private final long mask;
+        private final long magic;
+        private final int shift;
+        private final long[] attacks;
+
+        Magic(int square, long magic, boolean diagonal) {
+            this.magic = magic;
+            mask = relevantMask(square, diagonal);
+            shift = Long.SIZE - Long.bitCount(mask);
+            attacks = new long[1 << Long.bitCount(mask)];
+            long subset = 0L;
+            do {
+                attacks[(int) ((subset * magic) >>> shift)] = slide(square, subset, diagonal);
+                subset = (subset - mask) & mask;
+            } while (subset != 0);
+        }
+
+        long attacks(long occupied) {
+            return attacks[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+    }
+}
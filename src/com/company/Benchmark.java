@@ -0,0 +1,95 @@
+package com.company;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+public class Benchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final long ITERATION_NANOS = 200_000_000L;
+    private static final long BATCH_NANOS = 1_000_000L;
+    static final String[][] POSITIONS = {
+            {"startpos", ""},
+            {"ruy lopez", "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 e1g1 f8e7"},
+            {"sicilian", "e2e4 c7c5 g1f3 d7d6 d2d4 c5d4 f3d4 g8f6 b1c3 a7a6"},
+            {"check", "e2e4 e7e5 d1h5 b8c6 f1c4 g8f6 h5f7"},
+            {"mate", "f2f3 e7e5 g2g4 d8h4"}
+    };
+    private static volatile long sink;
+
+    interface Operation {
+        long run();
+    }
+
+    public static void main(String[] args) {
+        System.out.printf("%-12s %-14s %14s %10s%n", "position", "benchmark", "ns/op", "error");
+        for (String[] entry : POSITIONS) {
+            Position position = SmpBenchmark.play(entry[1]);
+            Board board = new Board(position);
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = MoveGenerator.generate(position, position.sideToMove(), moves, 0);
+            Color us = position.sideToMove();
+
+            run(entry[0], "generate", () -> MoveGenerator.generate(position, us, moves, 0));
+            run(entry[0], "make/unmake", () -> {
+                long key = 0;
+                for (int i = 0; i < count; i++) {
+                    position.makeMove(moves[i]);
+                    key ^= position.key();
+                    position.unmakeMove();
+                }
+                return key;
+            });
+            run(entry[0], "isCheck", () -> position.isCheck(us) ? 1 : 0);
+            board.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            run(entry[0], "isGameOver", () -> board.isGameOver() ? 1 : 0);
+            run(entry[0], "display", () -> {
+                board.display();
+                return 1;
+            });
+            board.setRenderSink(RenderSink.HEADLESS);
+            run(entry[0], "headless", () -> {
+                board.display();
+                return 1;
+            });
+            run(entry[0], "perft 3", () -> new Perft().perft(position, 3));
+        }
+    }
+
+    private static void run(String position, String name, Operation operation) {
+        int batch = 1;
+        while (iteration(operation, batch, 0) * batch < BATCH_NANOS) {
+            batch *= 2;
+        }
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(operation, batch, ITERATION_NANOS);
+        }
+        double[] results = new double[MEASUREMENT_ITERATIONS];
+        double mean = 0;
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            results[i] = iteration(operation, batch, ITERATION_NANOS);
+            mean += results[i] / MEASUREMENT_ITERATIONS;
+        }
+        double variance = 0;
+        for (double result : results) {
+            variance += (result - mean) * (result - mean) / (MEASUREMENT_ITERATIONS - 1);
+        }
+        System.out.printf("%-12s %-14s %14.1f %10.1f%n", position, name, mean, Math.sqrt(variance));
+    }
+
+    private static double iteration(Operation operation, int batch, long duration) {
+        long operations = 0;
+        long result = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < batch; i++) {
+                result += operation.run();
+            }
+            operations += batch;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < duration);
+        sink = result;
+        return (double) elapsed / operations;
+    }
+}
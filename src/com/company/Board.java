@@ -1,8 +1,9 @@
 package com.company;
 
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
 import java.util.*;
 
-import static com.company.Board.Direction.*;
 import static com.company.Color.BLACK;
 import static com.company.Color.WHITE;
 import static com.company.Piece.Type.*;
@@ -12,372 +13,328 @@ public class Board {
     public static final char MAX_LETTER = 'h';
     public static final int MIN_NUMBER = 1;
     public static final int MAX_NUMBER = 8;
-    private final Map<Color, List<Piece>> pieces = new HashMap<>();
-    private final Map<Byte, Map<Character, Cell>> board = new HashMap<>();
-    private Piece whiteKing;
-    private Piece blackKing;
-    private Color currentColorMoves;
-    private Map<Color, Map<Cell, Set<Cell>>> nextPossibleMoves = new HashMap<>();
+    private static final Piece.Type[] BACK_RANK = {ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT, ROOK};
+    private final Position position;
+    private final Cell[] cells = new Cell[Position.SQUARES];
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private Position turned;
+    private final BoardRenderer renderer = new BoardRenderer();
+    private PrintStream out = System.out;
+    private RenderSink sink = RenderSink.of(out);
+    private ParallelSearch search;
+    private int searchThreads = 1;
+    private TranspositionTable table = TranspositionTable.SHARED;
+    private OpeningBook book;
+    private Tablebases tablebases;
+    private LegalMoveCache moveCache = LegalMoveCache.SHARED;
+
+    public Board() {
+        this(new Position());
+    }
 
-    public void reset() {
-        pieces.clear();
-        for (byte number = MIN_NUMBER; number <= MAX_NUMBER; number++) {
-            HashMap<Character, Cell> row = new HashMap<>();
-            for (char letter = MIN_LETTER; letter <= MAX_LETTER; letter++) {
-                row.put(letter, new Cell(letter, number));
-            }
-            board.put(number, row);
+    Board(Position position) {
+        this.position = position;
+        for (int square = 0; square < Position.SQUARES; square++) {
+            cells[square] = new Cell(Position.file(square), Position.rank(square));
         }
-        createPieces(WHITE);
-        createPieces(BLACK);
-        setupPieces(WHITE);
-        setupPieces(BLACK);
     }
 
-    public void update(char fromX, byte fromY, char toX, byte toY) {
-        swap(fromX, fromY, toX, toY);
-        nextPossibleMoves.put(currentColorMoves, calculatePossibleMoves(currentColorMoves));
-        Color opponentsColor = getOpponentsColor(currentColorMoves);
-        nextPossibleMoves.put(opponentsColor, calculatePossibleMoves(opponentsColor));
+    public void reset() {
+        setupStartPosition(position);
     }
 
-    private void swap(char fromX, byte fromY, char toX, byte toY) {
-        Cell fromCell = board.get(fromY).get(fromX);
-        Cell toCell = board.get(toY).get(toX);
-        toCell.setPiece(fromCell.getPiece());
-        fromCell.setPiece(null);
+    static void setupStartPosition(Position position) {
+        position.clear();
+        setupPieces(position, WHITE);
+        setupPieces(position, BLACK);
+        position.setState(WHITE, Position.ALL_CASTLING, Position.NO_SQUARE, 0);
     }
 
-    public boolean isGameOver() {
-        if (isGameJustStarted()) {
-            return false;
+    public int update(char fromX, byte fromY, char toX, byte toY) {
+        long start = Metrics.MOVE_APPLICATION.start();
+        try {
+            return swap(fromX, fromY, toX, toY);
+        } finally {
+            Metrics.MOVE_APPLICATION.stop(start);
         }
-        Piece king = currentColorMoves == WHITE ? blackKing : whiteKing;
-        if (isCheck(king)) {
-            System.out.print("\nCheck");
-            if (calculatePossibleMoves(king).isEmpty() && !isPossibleRemoveCheck(king)) {
-                System.out.println("mate");
-                return true;
-            }
+    }
+
+    private int swap(char fromX, byte fromY, char toX, byte toY) {
+        int move = findMove(Position.square(fromX, fromY), Position.square(toX, toY));
+        if (move == Move.NONE) {
+            throw new IllegalArgumentException("No move from " + fromX + fromY + " to " + toX + toY);
         }
-        return false;
+        position.makeMove(move);
+        return move;
     }
 
-    private boolean isGameJustStarted() {
-        return nextPossibleMoves.isEmpty() || nextPossibleMoves.size() < 2;
+    void makeMove(int move) {
+        position.makeMove(move);
+    }
+
+    void takeBack() {
+        if (position.ply() == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        position.unmakeMove();
     }
 
-    private boolean isPossibleRemoveCheck(Piece king) {
-        Map<Cell, Set<Cell>> possibleMoves = calculatePossibleMoves(king.getColor());
-        for (Cell from : possibleMoves.keySet()) {
-            for (Cell to : possibleMoves.get(from)) {
-                Piece piece = board.get(to.getY()).get(to.getX()).getPiece();
-                update(from.getX(), from.getY(), to.getX(), to.getY());
-                if (isCheck(king)) {
-                    update(to.getX(), to.getY(), from.getX(), from.getY());
-                    to.setPiece(piece);
-                } else {
-                    update(to.getX(), to.getY(), from.getX(), from.getY());
-                    to.setPiece(piece);
-                    return true;
-                }
+    long key() {
+        return position.key();
+    }
+
+    public void loadFen(String fen) {
+        Fen.parse(position, fen);
+    }
+
+    public String toFen() {
+        return Fen.toFen(position);
+    }
+
+    public void writeTo(ByteBuffer buffer) {
+        PositionCodec.write(position, buffer);
+    }
+
+    public void readFrom(ByteBuffer buffer) {
+        PositionCodec.read(position, buffer);
+    }
+
+    public boolean isGameOver() {
+        return announceResult().isOver();
+    }
+
+    GameResult announceResult() {
+        GameResult result = getResult();
+        if (isCheck(position.sideToMove())) {
+            out.print("\nCheck");
+            if (result.isDecisive()) {
+                out.println("mate");
             }
         }
-        return false;
+        return result;
     }
 
-    private boolean isCheck(Piece king) {
-        if (isGameJustStarted()) {
-            return false;
+    public GameResult getResult() {
+        long start = Metrics.GAME_OVER.start();
+        try {
+            return result();
+        } finally {
+            Metrics.GAME_OVER.stop(start);
         }
-        Map<Cell, Set<Cell>> nextOpponentsMoves = nextPossibleMoves.get(getOpponentsColor(king.getColor()));
-        for (Cell from : nextOpponentsMoves.keySet()) {
-            for (Cell to : nextOpponentsMoves.get(from)) {
-                if (to.getPiece() != null && to.getPiece().equals(king)) {
-                    return true;
-                }
-            }
+    }
+
+    private GameResult result() {
+        Color color = position.sideToMove();
+        if (!hasLegalMove()) {
+            return isCheck(color) ? GameResult.checkmate(Position.opponent(color)) : GameResult.STALEMATE;
         }
-        return false;
+        if (position.halfmoveClock() >= 100) {
+            return GameResult.FIFTY_MOVE_RULE;
+        }
+        if (position.repetitions() >= 2) {
+            return GameResult.THREEFOLD_REPETITION;
+        }
+        if (position.hasInsufficientMaterial()) {
+            return GameResult.INSUFFICIENT_MATERIAL;
+        }
+        return GameResult.IN_PROGRESS;
     }
 
-    private Color getOpponentsColor(Color currentColor) {
-        return currentColor == WHITE ? BLACK : WHITE;
+    private boolean hasLegalMove() {
+        return moveCache.generate(position, moveBuffer) > 0;
     }
 
-    public void display() {
-        System.out.println();
-        printAxis();
-        for (Byte number : board.keySet()) {
-            printSplitter();
-            System.out.print(number + " ");
-            for (Character letter : board.get(number).keySet()) {
-                System.out.print("| " + getDisplayName(board.get(number).get(letter)) + " ");
+    private int findMove(int from, int to) {
+        int count = moveCache.generate(position, moveBuffer);
+        for (int i = 0; i < count; i++) {
+            if (Move.from(moveBuffer[i]) == from && Move.to(moveBuffer[i]) == to) {
+                return moveBuffer[i];
             }
-            System.out.print("| " + number);
         }
-        printSplitter();
-        printAxis();
-        System.out.println();
+        return Move.NONE;
     }
 
-    public boolean isMovementAvailable(Color color, char fromX, byte fromY, char toX, byte toY) {
-        boolean isPossibleMovement = calculatePossibleMoves(color).get(new Cell(fromX, fromY)).contains(new Cell(toX, toY));
-        return isFromValid(fromX, fromY) && isCellPlaceValid(toX, toY) && isPossibleMovement;
+    private boolean isCheck(Color color) {
+        return position.isCheck(color);
     }
 
-    public Map<Cell, Set<Cell>> calculatePossibleMoves(Color color) {
-        Map<Cell, Set<Cell>> possibleMoves = new HashMap<>();
-        for (Piece piece : pieces.get(color)) {
-            possibleMoves.put(findCell(piece), calculatePossibleMoves(piece));
+    public void display() {
+        if (!sink.isHeadless()) {
+            sink.write(renderer.render(position));
         }
-        return possibleMoves;
     }
 
-    private void createPieces(Color color) {
-        List<Piece> coloredPieces = new ArrayList<>();
+    public void displayPossibleMoves(Color color) {
+        if (!sink.isHeadless()) {
+            sink.write(renderer.renderMoves(color, moveBuffer, calculatePossibleMoves(color, moveBuffer)));
+        }
+    }
 
-        Piece leftRook = new Piece(ROOK, color);
-        Piece leftKnight = new Piece(KNIGHT, color);
-        Piece leftBishop = new Piece(BISHOP, color);
-        Piece queen = new Piece(QUEEN, color);
-        Piece king = new Piece(KING, color);
-        Piece rightBishop = new Piece(BISHOP, color);
-        Piece rightKnight = new Piece(KNIGHT, color);
-        Piece rightRok = new Piece(ROOK, color);
+    public boolean isMovementAvailable(Color color, char fromX, byte fromY, char toX, byte toY) {
+        long start = Metrics.MOVE_VALIDATION.start();
+        try {
+            return isMovementValid(color, fromX, fromY, toX, toY);
+        } finally {
+            Metrics.MOVE_VALIDATION.stop(start);
+        }
+    }
+
+    private boolean isMovementValid(Color color, char fromX, byte fromY, char toX, byte toY) {
+        if (!isFromValid(fromX, fromY) || !isCellPlaceValid(toX, toY)) {
+            return false;
+        }
+        if (color != position.sideToMove()) {
+            return false;
+        }
+        return findMove(Position.square(fromX, fromY), Position.square(toX, toY)) != Move.NONE;
+    }
 
-        coloredPieces.add(leftRook);
-        coloredPieces.add(leftKnight);
-        coloredPieces.add(leftBishop);
-        coloredPieces.add(queen);
-        coloredPieces.add(king);
-        coloredPieces.add(rightBishop);
-        coloredPieces.add(rightKnight);
-        coloredPieces.add(rightRok);
+    /**
+     * Writes the legal moves of {@code color} into {@code moves} and returns their count. For the side
+     * not to move these are the moves it would have if it were its turn, without any en passant capture.
+     */
+    public int calculatePossibleMoves(Color color, int[] moves) {
+        long start = Metrics.MOVE_GENERATION.start();
+        int count = moveCache.generate(color == position.sideToMove() ? position : turnedTo(color), moves);
+        Metrics.MOVE_GENERATION.stop(start);
+        return count;
+    }
 
-        for (char i = MIN_LETTER; i <= MAX_LETTER; i++) {
-            Piece pawn = new Piece(PAWN, color);
-            coloredPieces.add(pawn);
+    private Position turnedTo(Color color) {
+        if (turned == null) {
+            turned = new Position();
         }
+        turned.copyFrom(position);
+        turned.setState(color, position.castlingRights(), Position.NO_SQUARE, position.halfmoveClock());
+        return turned;
+    }
 
-        pieces.put(color, coloredPieces);
+    public Map<Cell, Set<Cell>> calculatePossibleMoves(Color color) {
+        Map<Cell, Set<Cell>> possibleMoves = new LinkedHashMap<>();
+        int count = calculatePossibleMoves(color, moveBuffer);
+        for (int i = 0; i < count; i++) {
+            Cell from = cell(Move.from(moveBuffer[i]));
+            Set<Cell> targets = possibleMoves.get(from);
+            if (targets == null) {
+                targets = new LinkedHashSet<>();
+                possibleMoves.put(from, targets);
+            }
+            targets.add(cell(Move.to(moveBuffer[i])));
+        }
+        return possibleMoves;
     }
 
-    private void setupPieces(Color color) {
-        List<Piece> pieces = this.pieces.get(color);
+    private static void setupPieces(Position position, Color color) {
         byte number = (byte) (color == WHITE ? MIN_NUMBER : MAX_NUMBER);
         byte pawnNumber = (byte) (color == WHITE ? MIN_NUMBER + 1 : MAX_NUMBER - 1);
         byte index = 0;
-        byte pawnIndex = MAX_NUMBER;
 
         for (char i = MIN_LETTER; i <= MAX_LETTER; i++) {
-            Piece piece = pieces.get(index);
-            if (piece.getType() == KING) {
-                if (piece.color == WHITE) {
-                    whiteKing = piece;
-                } else {
-                    blackKing = piece;
-                }
-            }
-            board.get(number).get(i).setPiece(piece); // king, queen, etc...
+            position.put(Position.square(i, number), Position.piece(BACK_RANK[index], color)); // king, queen, etc...
             index++;
-            board.get(pawnNumber).get(i).setPiece(pieces.get(pawnIndex++));   // king, queen, etc...
+            position.put(Position.square(i, pawnNumber), Position.piece(PAWN, color));
         }
     }
 
-    private String getDisplayName(Cell cell) {
-        String value = " ";
-        if (cell.getPiece() != null) {
-            if (cell.getPiece().getColor() == BLACK) {
-                value = cell.getPiece().getType().displayName;
-            } else {
-                value = cell.getPiece().getType().displayName.toLowerCase();
-            }
-        }
-        return value;
+    private boolean isCellPlaceValid(char x, byte y) {
+        return Position.isValid(x, y);
     }
 
-    private void printAxis() {
-        System.out.print("  ");
-        for (char letter = MIN_LETTER; letter <= MAX_LETTER; letter++) {
-            System.out.print("  " + letter + " ");
-        }
-        System.out.print("  ");
+    private boolean isFromValid(char fromX, byte fromY) {
+        return isCellPlaceValid(fromX, fromY) && !position.isEmpty(Position.square(fromX, fromY));
     }
 
-    private void printSplitter() {
-        System.out.println();
-        System.out.print("  ");
-        for (byte i = MIN_NUMBER; i <= MAX_NUMBER; i++) {
-            System.out.print("+---");
-        }
-        System.out.print("+  ");
-        System.out.println();
+    private Cell cell(int square) {
+        Cell cell = cells[square];
+        cell.setPiece(Piece.of(position.pieceAt(square)));
+        return cell;
     }
 
-    private boolean isCellPlaceValid(char x, byte y) {
-        return !(board.get(y) == null || board.get(y).get(x) == null);
+    public long perft(int depth) {
+        return new Perft().perft(position, depth);
     }
 
-    private boolean isFromValid(char fromX, byte fromY) {
-        return isCellPlaceValid(fromX, fromY) && board.get(fromY).get(fromX).getPiece() != null;
-    }
-
-    private Set<Cell> calculatePossibleMoves(Piece piece) {
-        Cell cell = findCell(piece);
-        Set<Cell> possibleMoves = new HashSet<>();
-        if (cell != null) {
-            switch (piece.getType()) {
-                case KING:
-                    Arrays.asList(Direction.values()).stream().forEach(d ->
-                            findMovesOnDirection(0, 1, d, cell.getX(), cell.getY(), cell, possibleMoves));
-                    break;
-                case QUEEN:
-                    Arrays.asList(Direction.values()).stream().forEach(d ->
-                            findMovesOnDirection(0, 7, d, cell.getX(), cell.getY(), cell, possibleMoves));
-                    break;
-                case BISHOP:
-                    findMovesOnDirection(0, 7, NORTH_EAST, cell.getX(), cell.getY(), cell, possibleMoves);
-                    findMovesOnDirection(0, 7, SOUTH_EAST, cell.getX(), cell.getY(), cell, possibleMoves);
-                    findMovesOnDirection(0, 7, SOUTH_WEST, cell.getX(), cell.getY(), cell, possibleMoves);
-                    findMovesOnDirection(0, 7, NORTH_WEST, cell.getX(), cell.getY(), cell, possibleMoves);
-                    break;
-                case KNIGHT:
-                    findMovesForKnight(NORTH, cell, possibleMoves);
-                    findMovesForKnight(EAST, cell, possibleMoves);
-                    findMovesForKnight(SOUTH, cell, possibleMoves);
-                    findMovesForKnight(WEST, cell, possibleMoves);
-                    break;
-                case ROOK:
-                    findMovesOnDirection(0, 7, NORTH, cell.getX(), cell.getY(), cell, possibleMoves);
-                    findMovesOnDirection(0, 7, EAST, cell.getX(), cell.getY(), cell, possibleMoves);
-                    findMovesOnDirection(0, 7, SOUTH, cell.getX(), cell.getY(), cell, possibleMoves);
-                    findMovesOnDirection(0, 7, WEST, cell.getX(), cell.getY(), cell, possibleMoves);
-                    break;
-                default:
-                    findMovesForPawn(cell, possibleMoves);
-            }
+    public String divide(int depth) {
+        StringBuilder out = new StringBuilder();
+        new Perft().divide(position, depth, out);
+        return out.toString();
+    }
 
+    public SearchResult bestMove(long timeBudgetMillis) {
+        if (book != null) {
+            long start = System.nanoTime();
+            int move = book.probe(position, moveBuffer);
+            if (move != Move.NONE) {
+                return new SearchResult(move, 0, 0, 0, System.nanoTime() - start);
+            }
         }
+        if (tablebases != null) {
+            long start = System.nanoTime();
+            int move = tablebases.bestMove(position, moveBuffer);
+            if (move != Move.NONE) {
+                return new SearchResult(move, Tablebases.score(tablebases.probe(position), 0), 0, 0, System.nanoTime() - start);
+            }
+        }
+        if (search == null) {
+            search = new ParallelSearch(searchThreads, table);
+            search.setTablebases(tablebases);
+        }
+        return search.bestMove(position, timeBudgetMillis);
+    }
 
-        return possibleMoves;
+    void setOut(PrintStream out) {
+        this.out = out;
+        this.sink = RenderSink.of(out);
     }
 
-    private void findMovesForKnight(Direction d, Cell cell, Set<Cell> possibleMoves) {
-        if (d.xOffset == 0) {
-            char possibleX1 = (char) (cell.getX() + 1);
-            char possibleX2 = (char) (cell.getX() - 1);
-            byte possibleY = (byte) (cell.getY() + 2 * d.yOffset);
-            checkCell(possibleX1, possibleY, cell, possibleMoves);
-            checkCell(possibleX2, possibleY, cell, possibleMoves);
-        } else if (d.yOffset == 0) {
-            char possibleX = (char) (2 * cell.getX());
-            byte possibleY1 = (byte) (cell.getY() + 1);
-            byte possibleY2 = (byte) (cell.getY() - 1);
-            checkCell(possibleX, possibleY1, cell, possibleMoves);
-            checkCell(possibleX, possibleY2, cell, possibleMoves);
-        }
+    void setRenderSink(RenderSink sink) {
+        this.sink = sink;
     }
 
-    private void checkCell(char x, byte y, Cell cell, Set<Cell> possibleMoves) {
-        if (isCellFree(x, y)) {
-            possibleMoves.add(board.get(y).get(x));
-        } else if (isOpponent(cell, x, y)) {
-            possibleMoves.add(board.get(y).get(x));
-        }
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
     }
 
-    private void findMovesForPawn(Cell cell, Set<Cell> possibleMoves) {
-        if (cell.getPiece().getColor() == WHITE) {
-            if (isCellFree(cell.getX(), (byte) (cell.getY() + 1))) {
-                possibleMoves.add(board.get((byte) (cell.getY() + 1)).get(cell.getX()));
-                if (cell.getY() == 2 && isCellFree(cell.getX(), (byte) (cell.getY() + 2))) {
-                    possibleMoves.add(board.get((byte) (cell.getY() + 2)).get(cell.getX()));
-                }
-            }
-            if (isOpponent(cell, (char) (cell.getX() + 1), (byte) (cell.getY() + 1))) {
-                possibleMoves.add(board.get((byte) (cell.getY() + 1)).get((char) (cell.getX() + 1)));
-            }
-            if (isOpponent(cell, (char) (cell.getX() - 1), (byte) (cell.getY() + 1))) {
-                possibleMoves.add(board.get((byte) (cell.getY() + 1)).get((char) (cell.getX() - 1)));
-            }
-        } else if (cell.getPiece().getColor() == BLACK) {
-            if (isCellFree(cell.getX(), (byte) (cell.getY() - 1))) {
-                possibleMoves.add(board.get((byte) (cell.getY() - 1)).get(cell.getX()));
-                if (cell.getY() == 7 && isCellFree(cell.getX(), (byte) (cell.getY() - 2))) {
-                    possibleMoves.add(board.get((byte) (cell.getY() - 2)).get(cell.getX()));
-                }
-            }
-            if (isOpponent(cell, (char) (cell.getX() + 1), (byte) (cell.getY() - 1))) {
-                possibleMoves.add(board.get((byte) (cell.getY() - 1)).get((char) (cell.getX() + 1)));
-            }
-            if (isOpponent(cell, (char) (cell.getX() - 1), (byte) (cell.getY() - 1))) {
-                possibleMoves.add(board.get((byte) (cell.getY() - 1)).get((char) (cell.getX() - 1)));
-            }
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+        if (search != null) {
+            search.setTablebases(tablebases);
         }
     }
 
-    private void findMovesOnDirection(int depth, int maxDepth, Direction direction, char x, byte y, Cell cellWithPiece, Set<Cell> possibleMoves) {
-        if (depth == maxDepth) {
-            return;
-        }
-        char possibleX = (char) (x + direction.xOffset);
-        byte possibleY = (byte) (y + direction.yOffset);
-        if (isCellFree(possibleX, possibleY)) {
-            if (cellWithPiece.getPiece().getType() == KING) {
-                if (!isCheck(cellWithPiece.getPiece())) {
-                    possibleMoves.add(board.get(possibleY).get(possibleX));
-                }
-            } else {
-                possibleMoves.add(board.get(possibleY).get(possibleX));
-                findMovesOnDirection(depth + 1, maxDepth, direction, possibleX, possibleY, cellWithPiece, possibleMoves);
-            }
-        } else if (isOpponent(cellWithPiece, possibleX, possibleY)) {
-            if (cellWithPiece.getPiece().getType() == KING) {
-                if (!isCheck(cellWithPiece.getPiece())) {
-                    possibleMoves.add(board.get(possibleY).get(possibleX));
-                }
-            } else {
-                possibleMoves.add(board.get(possibleY).get(possibleX));
-            }
+    public void setSearchThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Search needs at least one thread, got " + threads);
         }
+        searchThreads = threads;
+        search = null;
+    }
 
+    void setTranspositionTable(TranspositionTable table) {
+        this.table = table;
+        search = null;
     }
 
-    private boolean isCellFree(char x, byte y) {
-        if (x < MIN_LETTER || MAX_LETTER < x || y < MIN_NUMBER || MAX_NUMBER < y) {
-            return false;
-        }
-        Map<Character, Cell> column = board.get(y);
-        return column != null && column.get(x) != null && column.get(x).getPiece() == null;
+    public int evaluate() {
+        return position.evaluate();
     }
 
-    private boolean isOpponent(Cell cell, char x, byte y) {
-        return !(x < MIN_LETTER || MAX_LETTER < x || y < MIN_NUMBER || MAX_NUMBER < y ||
-                board.get(y) == null || board.get(y).get(x) == null || board.get(y).get(x).getPiece() == null) &&
-                board.get(y).get(x).getPiece().getColor() != cell.getPiece().getColor();
+    void setMoveCache(LegalMoveCache moveCache) {
+        this.moveCache = moveCache;
+    }
 
-//        if (x < MIN_LETTER || MAX_LETTER < x || y < MIN_NUMBER || MAX_NUMBER < y ||
-//                board.get(y) == null || board.get(y).get(x) == null || board.get(y).get(x).getPiece() == null) {
-//            return false;
-//        }
-//        return board.get(y).get(x).getPiece().getColor() != cell.getPiece().getColor();
+    void setEvaluator(Evaluator evaluator) {
+        position.setEvaluator(evaluator);
     }
 
-    private Cell findCell(Piece piece) {
-        for (Byte number : board.keySet()) {
-            for (Character letter : board.get(number).keySet()) {
-                Cell cell = board.get(number).get(letter);
-                if (piece != null && piece.equals(cell.getPiece())) {
-                    return cell;
-                }
-            }
-        }
-        return null;
+    public long getPositionKey() {
+        return position.key();
     }
 
     public void setCurrentColorMoves(Color currentColorMoves) {
-        this.currentColorMoves = currentColorMoves;
+        if (position.sideToMove() != currentColorMoves) {
+            position.setState(currentColorMoves, position.castlingRights(), Position.NO_SQUARE, position.halfmoveClock());
+        }
     }
 
 // northWest (-1,+1)    north (0,1)     northEast (+1,+1)
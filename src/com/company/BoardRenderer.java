@@ -0,0 +1,65 @@
+package com.company;
+
+import java.util.Arrays;
+
+import static com.company.Color.BLACK;
+
+final class BoardRenderer {
+    private static final String LINE = System.lineSeparator();
+    private static final String AXIS = "    a   b   c   d   e   f   g   h   ";
+    private static final String SPLITTER = "  +---+---+---+---+---+---+---+---+  ";
+    private static final char[] LETTERS = new char[Piece.Type.values().length * Color.values().length];
+    private final StringBuilder text = new StringBuilder(1024);
+    private final int[] sorted = new int[MoveGenerator.MAX_MOVES];
+
+    static {
+        for (Color color : Color.values()) {
+            for (Piece.Type type : Piece.Type.values()) {
+                char letter = type.displayName.charAt(0);
+                LETTERS[Position.piece(type, color)] = color == BLACK ? letter : Character.toLowerCase(letter);
+            }
+        }
+    }
+
+    CharSequence render(Position position) {
+        text.setLength(0);
+        text.append(LINE).append(AXIS);
+        for (int rank = 0; rank < 8; rank++) {
+            text.append(LINE).append(SPLITTER).append(LINE);
+            text.append(rank + 1).append(' ');
+            for (int file = 0; file < 8; file++) {
+                int piece = position.pieceAt(rank * 8 + file);
+                text.append("| ").append(piece == Position.EMPTY ? ' ' : LETTERS[piece]).append(' ');
+            }
+            text.append("| ").append(rank + 1);
+        }
+        text.append(LINE).append(SPLITTER).append(LINE).append(AXIS).append(LINE);
+        return text;
+    }
+
+    CharSequence renderMoves(Color color, int[] moves, int count) {
+        for (int i = 0; i < count; i++) {
+            sorted[i] = Move.from(moves[i]) << 6 | Move.to(moves[i]);
+        }
+        Arrays.sort(sorted, 0, count);
+        text.setLength(0);
+        text.append(LINE).append(color.displayName).append("'s moves:").append(LINE);
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            if (sorted[i] == previous) {
+                continue;
+            }
+            previous = sorted[i];
+            appendSquare(color, sorted[i] >>> 6);
+            text.append(' ');
+            appendSquare(color, sorted[i] & 0x3F);
+            text.append(LINE);
+        }
+        return text;
+    }
+
+    private void appendSquare(Color color, int square) {
+        char file = Position.file(square);
+        text.append(color == BLACK ? Character.toUpperCase(file) : file).append(Position.rank(square));
+    }
+}
@@ -0,0 +1,9 @@
+package com.company;
+
+interface Evaluator {
+    int value(int piece, int square);
+
+    default int evaluate(Position position) {
+        return position.sideToMove() == Color.WHITE ? position.score() : -position.score();
+    }
+}
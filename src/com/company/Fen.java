@@ -0,0 +1,201 @@
+package com.company;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+import static com.company.Color.BLACK;
+import static com.company.Color.WHITE;
+import static com.company.Piece.Type.KING;
+import static com.company.Piece.Type.PAWN;
+import static com.company.Piece.Type.ROOK;
+
+final class Fen {
+    static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String CASTLING = "KQkq";
+
+    private Fen() {
+    }
+
+    static void parse(Position position, String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6) {
+            throw new IllegalArgumentException("FEN needs 4 to 6 fields: " + fen);
+        }
+        int[] board = new int[Position.SQUARES];
+        Arrays.fill(board, Position.EMPTY);
+        int x = 0;
+        int y = 7;
+        for (int i = 0; i < fields[0].length(); i++) {
+            char c = fields[0].charAt(i);
+            if (c == '/') {
+                if (x != 8 || y == 0) {
+                    throw new IllegalArgumentException("Wrong rank layout in FEN: " + fen);
+                }
+                x = 0;
+                y--;
+            } else if (c >= '1' && c <= '8') {
+                x += c - '0';
+            } else {
+                int piece = piece(c);
+                if (piece == Position.EMPTY || x > 7) {
+                    throw new IllegalArgumentException("Wrong piece placement in FEN: " + fen);
+                }
+                board[y * 8 + x++] = piece;
+            }
+            if (x > 8) {
+                throw new IllegalArgumentException("Too many squares in a rank of FEN: " + fen);
+            }
+        }
+        if (x != 8 || y != 0) {
+            throw new IllegalArgumentException("FEN must describe 8 ranks of 8 squares: " + fen);
+        }
+        if (count(board, Position.piece(KING, WHITE)) != 1 || count(board, Position.piece(KING, BLACK)) != 1) {
+            throw new IllegalArgumentException("FEN must have exactly one king per side: " + fen);
+        }
+
+        Color side;
+        if (fields[1].equals("w")) {
+            side = WHITE;
+        } else if (fields[1].equals("b")) {
+            side = BLACK;
+        } else {
+            throw new IllegalArgumentException("Wrong side to move in FEN: " + fen);
+        }
+        int castling = 0;
+        if (!fields[2].equals("-")) {
+            for (int i = 0; i < fields[2].length(); i++) {
+                int index = CASTLING.indexOf(fields[2].charAt(i));
+                if (index < 0) {
+                    throw new IllegalArgumentException("Wrong castling rights in FEN: " + fen);
+                }
+                castling |= 1 << index;
+            }
+        }
+        int enPassant = Position.NO_SQUARE;
+        if (!fields[3].equals("-")) {
+            if (fields[3].length() != 2 || !Position.isValid(fields[3].charAt(0), (byte) (fields[3].charAt(1) - '0'))) {
+                throw new IllegalArgumentException("Wrong en passant square in FEN: " + fen);
+            }
+            enPassant = Position.square(fields[3].charAt(0), (byte) (fields[3].charAt(1) - '0'));
+            if (!isEnPassantTarget(board, side, enPassant)) {
+                throw new IllegalArgumentException("En passant square does not follow a double pawn push in FEN: " + fen);
+            }
+        }
+        int halfmoveClock;
+        int fullmoveNumber;
+        try {
+            halfmoveClock = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+            fullmoveNumber = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Wrong move counters in FEN: " + fen, e);
+        }
+        if (halfmoveClock < 0 || fullmoveNumber < 1) {
+            throw new IllegalArgumentException("Wrong move counters in FEN: " + fen);
+        }
+
+        position.clear();
+        for (int square = 0; square < Position.SQUARES; square++) {
+            if (board[square] != Position.EMPTY) {
+                position.put(square, board[square]);
+            }
+        }
+        position.setState(side, castling & availableCastling(position), enPassant, halfmoveClock);
+        position.setFullmoveNumber(fullmoveNumber);
+    }
+
+    private static int count(int[] board, int piece) {
+        int count = 0;
+        for (int square : board) {
+            if (square == piece) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isEnPassantTarget(int[] board, Color side, int square) {
+        int rank = Position.rank(square);
+        int pushed = side == WHITE ? square - 8 : square + 8;
+        return rank == (side == WHITE ? 6 : 3)
+                && board[square] == Position.EMPTY
+                && board[pushed] == Position.piece(PAWN, Position.opponent(side));
+    }
+
+    static String toFen(Position position) {
+        return toFen(position::pieceAt, position.sideToMove(), position.castlingRights(), position.enPassant(),
+                position.halfmoveClock(), position.fullmoveNumber());
+    }
+
+    static String toFen(IntUnaryOperator pieceAt, Color side, int castling, int enPassant, int halfmoveClock,
+                        int fullmoveNumber) {
+        StringBuilder fen = new StringBuilder(90);
+        for (int y = 7; y >= 0; y--) {
+            int empty = 0;
+            for (int x = 0; x < 8; x++) {
+                int piece = pieceAt.applyAsInt(y * 8 + x);
+                if (piece == Position.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append(letter(piece));
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (y > 0) {
+                fen.append('/');
+            }
+        }
+        fen.append(side == WHITE ? " w " : " b ");
+        if (castling == 0) {
+            fen.append('-');
+        }
+        for (int i = 0; i < CASTLING.length(); i++) {
+            if ((castling & 1 << i) != 0) {
+                fen.append(CASTLING.charAt(i));
+            }
+        }
+        if (enPassant == Position.NO_SQUARE) {
+            fen.append(" -");
+        } else {
+            fen.append(' ').append(Position.file(enPassant)).append(Position.rank(enPassant));
+        }
+        return fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber).toString();
+    }
+
+    static int availableCastling(Position position) {
+        int available = 0;
+        for (Color color : Color.values()) {
+            int king = color == WHITE ? 4 : 60;
+            int shift = color == WHITE ? 0 : 2;
+            if (position.pieceAt(king) != Position.piece(KING, color)) {
+                continue;
+            }
+            if (position.pieceAt(king + 3) == Position.piece(ROOK, color)) {
+                available |= Position.WHITE_KING_SIDE << shift;
+            }
+            if (position.pieceAt(king - 4) == Position.piece(ROOK, color)) {
+                available |= Position.WHITE_QUEEN_SIDE << shift;
+            }
+        }
+        return available;
+    }
+
+    static char letter(int piece) {
+        char letter = Position.typeOf(piece).displayName.charAt(0);
+        return Position.colorOf(piece) == WHITE ? letter : Character.toLowerCase(letter);
+    }
+
+    private static int piece(char letter) {
+        for (Piece.Type type : Piece.Type.values()) {
+            if (type.displayName.charAt(0) == Character.toUpperCase(letter)) {
+                return Position.piece(type, Character.isUpperCase(letter) ? WHITE : BLACK);
+            }
+        }
+        return Position.EMPTY;
+    }
+}
@@ -1,11 +1,7 @@
 package com.company;
 
-import com.company.Board.Cell;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
 
 import static com.company.Color.BLACK;
 
@@ -14,35 +10,35 @@ public class Game {
     private final Player player1;
     private final Player player2;
     private Player currentPlayer;
-    private boolean isOver;
-    private final List<String> movesHistory = new ArrayList<>();
+    private GameResult result = GameResult.IN_PROGRESS;
+    private final MoveLog moveLog = new MoveLog();
+    private PrintStream out;
+    private volatile PositionSnapshot snapshot;
 
     public Game() {
-        System.out.println("New game is created");
+        this(System.out);
+    }
+
+    public Game(PrintStream out) {
+        this(out, RenderSink.of(out));
+    }
+
+    public Game(PrintStream out, RenderSink sink) {
+        this.out = out;
+        out.println("New game is created");
         board = new Board();
+        board.setOut(out);
+        board.setRenderSink(sink);
         board.reset();
         board.display();
         player1 = new Player(Color.WHITE);
         player2 = new Player(BLACK);
         this.currentPlayer = player1;
+        snapshot = new PositionSnapshot(board, 0, Move.NONE, result);
     }
 
     public void printPossibleMoves() {
-        Map<Cell, Set<Cell>> possibleMoves = board.calculatePossibleMoves(currentPlayer.getColor());
-        System.out.println("\n" + currentPlayer.getColor().displayName + "'s moves:");
-        possibleMoves.entrySet().stream().forEach(fromCell -> {
-            if (fromCell != null && fromCell.getKey() != null) {
-                String fromX = "" + fromCell.getKey().getX();
-                fromX = fromCell.getKey().getPiece().getColor() == BLACK ? fromX.toUpperCase() : fromX;
-                String from = "" + fromX + fromCell.getKey().getY();
-                fromCell.getValue().stream().forEach(toCell -> {
-                    String toX = "" + toCell.getX();
-                    toX = fromCell.getKey().getPiece().getColor() == BLACK ? toX.toUpperCase() : toX;
-                    String to = "" + toX + toCell.getY();
-                    System.out.println(from + " " + to);
-                });
-            }
-        });
+        board.displayPossibleMoves(currentPlayer.getColor());
     }
 
     public void move(char fromX, byte fromY, char toX, byte toY) throws WrongMovementException {
@@ -50,22 +46,126 @@ public class Game {
             throw new WrongMovementException("Wrong movement from " + fromX + fromY + " to " + toX + toY);
         }
         board.setCurrentColorMoves(currentPlayer.getColor());
-        board.update(fromX, fromY, toX, toY);
-        movesHistory.add(currentPlayer.getColor() + " moves " + fromX + fromY + " " + toX + toY);
-        isOver = board.isGameOver();
+        moveLog.add(board.update(fromX, fromY, toX, toY));
+        result = board.announceResult();
         board.display();
-        if (isOver) {
-            System.out.println("The game is over.  Congrats to " + currentPlayer.getColor().displayName);
+        if (result.isDecisive()) {
+            out.println("The game is over.  Congrats to " + currentPlayer.getColor().displayName);
+        } else if (result.isOver()) {
+            out.println("The game is over.  " + result.displayName);
+        }
+        switchPayer();
+        publish();
+    }
+
+    public boolean takeBack() {
+        if (moveLog.ply() == 0) {
+            return false;
+        }
+        board.takeBack();
+        moveLog.undo();
+        result = GameResult.IN_PROGRESS;
+        switchPayer();
+        publish();
+        return true;
+    }
+
+    public void replayTo(int ply) {
+        if (ply < 0 || ply > moveLog.length()) {
+            throw new IllegalArgumentException("Ply " + ply + " is outside of the game of " + moveLog.length() + " plies");
+        }
+        while (moveLog.ply() > ply) {
+            takeBack();
+        }
+        while (moveLog.ply() < ply) {
+            board.makeMove(moveLog.redo());
+            switchPayer();
         }
+        result = board.getResult();
+        publish();
+    }
+
+    int ply() {
+        return moveLog.ply();
+    }
+
+    int lastMove() {
+        return moveLog.get(moveLog.ply() - 1);
+    }
+
+    void apply(int move) {
+        board.makeMove(move);
+        moveLog.add(move);
+        result = board.getResult();
         switchPayer();
+        publish();
+    }
+
+    void writeSnapshot(ByteBuffer buffer) {
+        board.writeTo(buffer);
+        buffer.putInt(moveLog.length()).putInt(moveLog.ply());
+        for (int i = 0; i < moveLog.length(); i++) {
+            buffer.putInt(moveLog.get(i));
+        }
+    }
+
+    void readSnapshot(ByteBuffer buffer) {
+        Position expected = new Position();
+        PositionCodec.read(expected, buffer);
+        int length = buffer.getInt();
+        int ply = buffer.getInt();
+        for (int i = 0; i < length; i++) {
+            apply(buffer.getInt());
+        }
+        replayTo(ply);
+        if (board.key() != expected.key()) {
+            throw new IllegalStateException("Snapshot position does not match the moves of the game");
+        }
+    }
+
+    public String getSanHistory() {
+        return moveLog.toSan();
+    }
+
+    public String getUciHistory() {
+        return moveLog.toUci();
+    }
+
+    public String getPgn() {
+        return moveLog.toPgn(result.score);
+    }
+
+    private void publish() {
+        snapshot = new PositionSnapshot(board, moveLog.ply(), moveLog.ply() > 0 ? lastMove() : Move.NONE, result);
+    }
+
+    public PositionSnapshot getSnapshot() {
+        return snapshot;
     }
 
     private void switchPayer() {
         currentPlayer = currentPlayer == player1 ? player2 : player1;
     }
 
+    public void setOut(PrintStream out) {
+        this.out = out;
+        board.setOut(out);
+    }
+
+    public void setRenderSink(RenderSink sink) {
+        board.setRenderSink(sink);
+    }
+
+    public void setHeadless() {
+        board.setRenderSink(RenderSink.HEADLESS);
+    }
+
     public boolean isOver() {
-        return isOver;
+        return result.isOver();
+    }
+
+    public GameResult getResult() {
+        return result;
     }
 
     public void printBoard() {
@@ -73,10 +173,14 @@ public class Game {
     }
 
     public void printWhoIsNext() {
-        System.out.println("\n" + currentPlayer.getColor().displayName + "'s Move");
+        out.println("\n" + currentPlayer.getColor().displayName + "'s Move");
+    }
+
+    public void printPerft(int depth) {
+        out.print(board.divide(depth));
     }
 
     public void printMovesHistory() {
-        movesHistory.stream().forEach(System.out::println);
+        out.println(moveLog.toSan());
     }
 }
@@ -0,0 +1,87 @@
+package com.company;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class GameClient implements AutoCloseable {
+    private static final String[] FOOLS_MATE = {"move f2 f3", "move e7 e5", "move g2 g4", "move d8 h4"};
+    private final Socket socket;
+    private final BufferedReader in;
+    private final PrintStream out;
+
+    public GameClient(int port) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    public String send(String command) throws IOException {
+        out.println(command);
+        StringBuilder response = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(GameServer.END_OF_RESPONSE)) {
+            response.append(line).append('\n');
+        }
+        if (line == null) {
+            throw new IOException("Server closed the connection");
+        }
+        return response.toString();
+    }
+
+    public String newSession() throws IOException {
+        String response = send(Main.NEW_COMMAND);
+        if (!response.startsWith("session ")) {
+            throw new IOException("Cannot create session: " + response);
+        }
+        return response.substring("session ".length(), response.indexOf('\n'));
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        try (GameServer server = new GameServer(0, 60_000, clients)) {
+            server.start();
+            long start = System.nanoTime();
+            List<Future<Boolean>> games = new ArrayList<>(clients);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < clients; i++) {
+                    games.add(executor.submit(() -> playFoolsMate(server.getPort())));
+                }
+            }
+            int finished = 0;
+            for (Future<Boolean> game : games) {
+                finished += game.get() ? 1 : 0;
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%d of %d games finished with mate in %dms, %d sessions alive%n",
+                    finished, clients, elapsed / 1_000_000, server.getSessionCount());
+            System.out.print(Metrics.report());
+        }
+    }
+
+    private static boolean playFoolsMate(int port) throws IOException {
+        try (GameClient client = new GameClient(port)) {
+            client.newSession();
+            String response = "";
+            for (String move : FOOLS_MATE) {
+                response = client.send(move);
+            }
+            client.send(GameServer.CLOSE_COMMAND);
+            return response.contains("The game is over");
+        }
+    }
+}
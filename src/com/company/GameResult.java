@@ -0,0 +1,35 @@
+package com.company;
+
+public enum GameResult {
+    IN_PROGRESS("*", "The game is in progress"),
+    WHITE_WINS("1-0", "Checkmate, White wins"),
+    BLACK_WINS("0-1", "Checkmate, Black wins"),
+    STALEMATE("1/2-1/2", "Draw by stalemate"),
+    THREEFOLD_REPETITION("1/2-1/2", "Draw by threefold repetition"),
+    FIFTY_MOVE_RULE("1/2-1/2", "Draw by the fifty-move rule"),
+    INSUFFICIENT_MATERIAL("1/2-1/2", "Draw by insufficient material");
+
+    public final String score;
+    public final String displayName;
+
+    GameResult(String score, String displayName) {
+        this.score = score;
+        this.displayName = displayName;
+    }
+
+    public boolean isOver() {
+        return this != IN_PROGRESS;
+    }
+
+    public boolean isDecisive() {
+        return this == WHITE_WINS || this == BLACK_WINS;
+    }
+
+    public boolean isDraw() {
+        return score.equals("1/2-1/2");
+    }
+
+    static GameResult checkmate(Color winner) {
+        return winner == Color.WHITE ? WHITE_WINS : BLACK_WINS;
+    }
+}
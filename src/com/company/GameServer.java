@@ -0,0 +1,225 @@
+package com.company;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class GameServer implements AutoCloseable {
+    public static final String ATTACH_COMMAND = "attach";
+    public static final String CLOSE_COMMAND = "close";
+    public static final String WATCH_COMMAND = "watch";
+    public static final String END_OF_RESPONSE = ".";
+    static final int MAX_LINE_LENGTH = 256;
+    private final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService evictor;
+    private final long idleTimeoutNanos;
+    private final int maxSessions;
+    private final GameStore store;
+
+    public GameServer(int port, long idleTimeoutMillis, int maxSessions) throws IOException {
+        this(port, idleTimeoutMillis, maxSessions, null);
+    }
+
+    public GameServer(int port, long idleTimeoutMillis, int maxSessions, GameStore store) throws IOException {
+        this.serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.maxSessions = maxSessions;
+        this.store = store;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        if (store != null) {
+            sessions.putAll(store.getGames());
+        }
+        long period = Math.max(1, TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos) / 4);
+        evictor.scheduleAtFixedRate(this::evictIdleSessions, period, period, TimeUnit.MILLISECONDS);
+        Thread.ofVirtual().name("game-server-accept").start(() -> {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.execute(() -> serve(socket));
+                } catch (SocketException e) {
+                    return;
+                } catch (IOException e) {
+                    System.err.println("Cannot accept connection: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    void evictIdleSessions() {
+        long now = System.nanoTime();
+        sessions.values().removeIf(session -> {
+            if (now - session.getLastAccessNanos() <= idleTimeoutNanos) {
+                return false;
+            }
+            try {
+                session.close();
+            } catch (UncheckedIOException e) {
+                // the game log has failed, the session only has to leave memory
+            }
+            Metrics.SESSIONS_EVICTED.increment();
+            return true;
+        });
+    }
+
+    private void serve(Socket socket) {
+        try (Socket connection = socket;
+             InputStream in = new BufferedInputStream(connection.getInputStream());
+             PrintStream out = new PrintStream(new BufferedOutputStream(connection.getOutputStream()), false, StandardCharsets.UTF_8)) {
+            GameSession session = null;
+            StringBuilder line = new StringBuilder(MAX_LINE_LENGTH);
+            while (readLine(in, line)) {
+                String[] command = line.toString().trim().toLowerCase().split("\\s+");
+                if (command[0].equals(Main.QUIT)) {
+                    out.println("Goodbye!");
+                    respond(out);
+                    return;
+                }
+                session = execute(session, command, out);
+                respond(out);
+            }
+        } catch (IOException e) {
+            // the client went away, its session stays until it is evicted
+        } catch (UncheckedIOException e) {
+            // the game log has failed, drop the connection rather than answer without persisting
+        }
+    }
+
+    private GameSession execute(GameSession session, String[] command, PrintStream out) throws IOException {
+        switch (command[0]) {
+            case Main.NEW_COMMAND:
+                if (sessions.size() >= maxSessions) {
+                    out.println("error too many sessions");
+                    return session;
+                }
+                GameSession created = new GameSession(UUID.randomUUID().toString(), store);
+                sessions.put(created.getId(), created);
+                awaitDurable(created.open());
+                Metrics.SESSIONS_OPENED.increment();
+                out.println("session " + created.getId());
+                created.execute(new String[]{Main.BOARD_COMMAND}, out);
+                return created;
+            case ATTACH_COMMAND:
+                GameSession attached = command.length == 2 ? sessions.get(command[1]) : null;
+                if (attached == null) {
+                    out.println("error unknown session");
+                    return session;
+                }
+                out.println("session " + attached.getId());
+                return attached;
+            case WATCH_COMMAND:
+                GameSession watched = command.length == 2 ? sessions.get(command[1]) : null;
+                if (watched == null) {
+                    out.println("error unknown session");
+                    return session;
+                }
+                PositionSnapshot snapshot = watched.getSnapshot();
+                out.println("position " + snapshot.toFen());
+                out.println("ply " + snapshot.getPly() + " last " + snapshot.getLastMove() + " result " + snapshot.getResult().score);
+                return session;
+            case CLOSE_COMMAND:
+                if (session != null) {
+                    sessions.remove(session.getId());
+                    session.close();
+                    out.println("closed " + session.getId());
+                }
+                return null;
+            default:
+                if (session == null || !sessions.containsKey(session.getId())) {
+                    out.println("error no session, use 'new' or 'attach <id>'");
+                    return null;
+                }
+                awaitDurable(session.execute(command, out));
+                GameResult result = session.getResult();
+                if (result.isOver()) {
+                    sessions.remove(session.getId());
+                    session.close();
+                    Metrics.SESSIONS_FINISHED.increment();
+                    out.println("finished " + session.getId() + " " + result.score);
+                    return null;
+                }
+                return session;
+        }
+    }
+
+    private void awaitDurable(long sequence) throws IOException {
+        if (store != null && sequence > 0) {
+            store.awaitDurable(sequence);
+        }
+    }
+
+    private static void respond(PrintStream out) {
+        out.println(END_OF_RESPONSE);
+        out.flush();
+    }
+
+    private static boolean readLine(InputStream in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                return true;
+            }
+            if (c != '\r') {
+                if (line.length() == MAX_LINE_LENGTH) {
+                    throw new IOException("Command line is longer than " + MAX_LINE_LENGTH + " characters");
+                }
+                line.append((char) c);
+            }
+        }
+        return line.length() > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        evictor.shutdownNow();
+        connections.shutdownNow();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        long idleTimeoutMillis = args.length > 1 ? Long.parseLong(args[1]) : TimeUnit.MINUTES.toMillis(30);
+        int maxSessions = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        GameStore store = args.length > 3 ? GameStore.open(Paths.get(args[3]), 2, TimeUnit.MINUTES.toMillis(1)) : null;
+        GameServer server = new GameServer(port, idleTimeoutMillis, maxSessions, store);
+        Metrics.registerMBeans();
+        Metrics.startDump(System.out, TimeUnit.MINUTES.toMillis(1));
+        server.start();
+        System.out.println("Chess server is listening on " + server.getPort()
+                + (store != null ? ", " + server.getSessionCount() + " games recovered" : ""));
+        Thread.currentThread().join();
+    }
+}
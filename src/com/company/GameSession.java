@@ -0,0 +1,161 @@
+package com.company;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+class GameSession {
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+    private final String id;
+    private final Game game;
+    private final GameStore store;
+    private long sequence;
+    private boolean closed;
+    private volatile long lastAccessNanos;
+
+    GameSession(String id) {
+        this(id, null);
+    }
+
+    GameSession(String id, GameStore store) {
+        this.id = id;
+        this.store = store;
+        this.game = new Game(DISCARD, RenderSink.HEADLESS);
+        touch();
+    }
+
+    String getId() {
+        return id;
+    }
+
+    long getLastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    PositionSnapshot getSnapshot() {
+        return game.getSnapshot();
+    }
+
+    synchronized GameResult getResult() {
+        return game.getResult();
+    }
+
+    synchronized long getSequence() {
+        return sequence;
+    }
+
+    synchronized long open() {
+        return log(GameStore.CREATE, 0, Move.NONE);
+    }
+
+    synchronized long close() {
+        if (closed) {
+            return 0;
+        }
+        closed = true;
+        return log(GameStore.CLOSE, game.ply(), Move.NONE);
+    }
+
+    synchronized long execute(String[] command, PrintStream out) {
+        long start = Metrics.SESSION_COMMAND.start();
+        long logged = 0;
+        touch();
+        game.setOut(out);
+        try {
+            switch (command[0]) {
+                case Main.BOARD_COMMAND:
+                    game.printBoard();
+                    break;
+                case Main.LIST_COMMAND:
+                    game.printPossibleMoves();
+                    break;
+                case Main.HISTORY_COMMAND:
+                    out.println("Moves history:");
+                    game.printMovesHistory();
+                    break;
+                case Main.UNDO_COMMAND:
+                    if (game.takeBack()) {
+                        logged = log(GameStore.SEEK, game.ply(), Move.NONE);
+                    } else {
+                        out.println("There is no move to take back");
+                    }
+                    break;
+                case Main.MOVE_COMMAND:
+                    logged = move(command, out);
+                    break;
+                default:
+                    out.println("Wrong command. Try once again please");
+            }
+            if (!game.isOver()) {
+                game.printWhoIsNext();
+            }
+            return logged;
+        } finally {
+            game.setOut(DISCARD);
+            game.setHeadless();
+            Metrics.SESSION_COMMAND.stop(start);
+        }
+    }
+
+    private long move(String[] command, PrintStream out) {
+        if (game.isOver()) {
+            out.println("The game is over");
+            return 0;
+        }
+        if (command.length != 3 || command[1].length() != 2 || command[2].length() != 2) {
+            out.println("Wrong command. Try once again please");
+            return 0;
+        }
+        try {
+            game.move(command[1].charAt(0), (byte) (command[1].charAt(1) - '0'),
+                    command[2].charAt(0), (byte) (command[2].charAt(1) - '0'));
+        } catch (WrongMovementException e) {
+            out.println("Wrong command. Try once again please");
+            return 0;
+        } catch (IllegalStateException e) {
+            out.println("This game has reached its length limit");
+            return 0;
+        }
+        return log(GameStore.MOVE, game.ply() - 1, game.lastMove());
+    }
+
+    private long log(byte type, int ply, int move) {
+        if (store == null) {
+            return 0;
+        }
+        sequence = store.append(this, type, ply, move);
+        return sequence;
+    }
+
+    synchronized boolean writeSnapshot(ByteBuffer buffer) {
+        if (closed) {
+            return false;
+        }
+        UUID uuid = UUID.fromString(id);
+        buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).putLong(sequence);
+        game.writeSnapshot(buffer);
+        return true;
+    }
+
+    synchronized void readSnapshot(ByteBuffer buffer) {
+        sequence = buffer.getLong();
+        game.readSnapshot(buffer);
+    }
+
+    synchronized void replay(byte type, int ply, int move, long number) {
+        if (type == GameStore.MOVE) {
+            if (game.ply() != ply) {
+                game.replayTo(ply);
+            }
+            game.apply(move);
+        } else if (type == GameStore.SEEK) {
+            game.replayTo(ply);
+        }
+        sequence = number;
+    }
+
+    private void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+}
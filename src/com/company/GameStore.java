@@ -0,0 +1,446 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+public final class GameStore implements AutoCloseable {
+    static final int RECORD_BYTES = 36;
+    static final byte CREATE = 1;
+    static final byte MOVE = 2;
+    static final byte SEEK = 3;
+    static final byte CLOSE = 4;
+    static final int SNAPSHOT_BYTES = 32 + PositionCodec.ENCODED_BYTES + 4 * Position.MAX_PLY;
+    private static final int MAGIC = 0x47414D45;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int CHECKSUMMED_BYTES = RECORD_BYTES - 4;
+    private static final int BUFFER_BYTES = RECORD_BYTES << 11;
+    private static final String LOG_SUFFIX = ".wal";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private final Path directory;
+    private final long commitIntervalNanos;
+    private final Map<String, GameSession> games = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final Object checkpointLock = new Object();
+    private final CRC32C checksum = new CRC32C();
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    private final Thread flusher;
+    private final ScheduledExecutorService checkpoints;
+    private FileChannel log;
+    private long segment;
+    private ByteBuffer active = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private ByteBuffer flushing = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long sequence;
+    private long durable;
+    private boolean writing;
+    private boolean closed;
+    private IOException failure;
+
+    private GameStore(Path directory, long commitIntervalMillis) {
+        this.directory = directory;
+        this.commitIntervalNanos = TimeUnit.MILLISECONDS.toNanos(commitIntervalMillis);
+        this.flusher = new Thread(this::flushLoop, "game-store-flusher");
+        this.flusher.setDaemon(true);
+        this.checkpoints = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-store-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static GameStore open(Path directory, long commitIntervalMillis, long checkpointIntervalMillis) throws IOException {
+        GameStore store = new GameStore(Files.createDirectories(directory), commitIntervalMillis);
+        store.recover();
+        store.flusher.start();
+        store.checkpoints.scheduleWithFixedDelay(store::checkpointQuietly, checkpointIntervalMillis,
+                checkpointIntervalMillis, TimeUnit.MILLISECONDS);
+        return store;
+    }
+
+    Map<String, GameSession> getGames() {
+        return Collections.unmodifiableMap(games);
+    }
+
+    long append(GameSession session, byte type, int ply, int move) {
+        lock.lock();
+        try {
+            while (active.remaining() < RECORD_BYTES && !closed && failure == null) {
+                appended.signal();
+                synced.awaitUninterruptibly();
+            }
+            if (closed) {
+                throw new IllegalStateException("Game store is closed");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Game log is not writable", failure);
+            }
+            if (type == CREATE) {
+                games.put(session.getId(), session);
+            } else if (type == CLOSE) {
+                games.remove(session.getId());
+            }
+            UUID id = UUID.fromString(session.getId());
+            record.clear();
+            record.putLong(++sequence).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits())
+                    .put(type).put((byte) 0).putShort((short) ply).putInt(move);
+            checksum.reset();
+            checksum.update(record.array(), 0, CHECKSUMMED_BYTES);
+            record.putInt((int) checksum.getValue()).flip();
+            active.put(record);
+            appended.signal();
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void awaitDurable(long sequence) throws IOException {
+        lock.lock();
+        try {
+            while (durable < sequence && failure == null && (!closed || flusher.isAlive())) {
+                synced.await();
+            }
+            if (durable < sequence) {
+                throw new IOException("Game log record " + sequence + " was not written", failure);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the game log");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            FileChannel channel;
+            long target;
+            lock.lock();
+            try {
+                while (active.position() == 0 && !closed && failure == null) {
+                    appended.awaitUninterruptibly();
+                }
+                if (active.position() == 0 || failure != null) {
+                    synced.signalAll();
+                    return;
+                }
+                long linger = commitIntervalNanos;
+                while (linger > 0 && !closed && failure == null && active.remaining() >= RECORD_BYTES) {
+                    try {
+                        linger = appended.awaitNanos(linger);
+                    } catch (InterruptedException e) {
+                        linger = 0;
+                    }
+                }
+                ByteBuffer batch = active;
+                active = flushing;
+                flushing = batch;
+                channel = log;
+                target = sequence;
+                writing = true;
+            } finally {
+                lock.unlock();
+            }
+            IOException error = null;
+            try {
+                write(channel, flushing);
+            } catch (IOException e) {
+                error = e;
+            }
+            lock.lock();
+            try {
+                if (error == null) {
+                    durable = target;
+                } else {
+                    fail(error);
+                }
+                writing = false;
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        long start = Metrics.LOG_SYNC.start();
+        int end = buffer.position();
+        try {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            buffer.clear();
+        } catch (IOException e) {
+            buffer.limit(buffer.capacity()).position(end);
+            throw e;
+        } finally {
+            Metrics.LOG_SYNC.stop(start);
+        }
+    }
+
+    private void fail(IOException error) {
+        if (failure == null) {
+            failure = error;
+        }
+        appended.signalAll();
+        synced.signalAll();
+    }
+
+    public void checkpoint() throws IOException {
+        synchronized (checkpointLock) {
+            FileChannel previous;
+            GameSession[] sessions;
+            long number;
+            lock.lock();
+            try {
+                while (writing) {
+                    synced.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+                if (failure != null) {
+                    throw new IOException("Game log is not writable", failure);
+                }
+                try {
+                    write(log, active);
+                } catch (IOException e) {
+                    fail(e);
+                    throw e;
+                }
+                durable = sequence;
+                synced.signalAll();
+                previous = log;
+                number = segment + 1;
+                log = openSegment(number);
+                segment = number;
+                sessions = games.values().toArray(new GameSession[0]);
+            } finally {
+                lock.unlock();
+            }
+            previous.close();
+            writeSnapshot(number, sessions);
+            for (Path file : list(LOG_SUFFIX)) {
+                if (number(file) < number) {
+                    Files.delete(file);
+                }
+            }
+            for (Path file : list(SNAPSHOT_SUFFIX)) {
+                if (number(file) < number) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            System.err.println("Cannot write game snapshot: " + e.getMessage());
+        }
+    }
+
+    private void writeSnapshot(long number, GameSession[] sessions) throws IOException {
+        Path file = directory.resolve(name(number, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        int count = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            ByteBuffer game = ByteBuffer.allocate(SNAPSHOT_BYTES);
+            buffer.position(HEADER_BYTES);
+            for (GameSession session : sessions) {
+                game.clear();
+                if (!session.writeSnapshot(game)) {
+                    continue;
+                }
+                game.flip();
+                if (buffer.remaining() < game.remaining()) {
+                    flush(channel, buffer);
+                }
+                buffer.put(game);
+                count++;
+            }
+            flush(channel, buffer);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(number).putInt(count).flip();
+            channel.write(buffer, 0);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+    }
+
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void recover() throws IOException {
+        long snapshot = -1;
+        for (Path file : list(SNAPSHOT_SUFFIX)) {
+            snapshot = Math.max(snapshot, number(file));
+        }
+        if (snapshot >= 0) {
+            readSnapshot(directory.resolve(name(snapshot, SNAPSHOT_SUFFIX)));
+        }
+        long last = Math.max(snapshot, 0);
+        for (Path file : list(LOG_SUFFIX)) {
+            if (number(file) >= Math.max(snapshot, 0)) {
+                scan(file);
+            }
+            last = Math.max(last, number(file));
+        }
+        segment = last + 1;
+        log = openSegment(segment);
+    }
+
+    private void readSnapshot(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IllegalArgumentException("Not a game snapshot file: " + file);
+        }
+        buffer.getLong();
+        for (int count = buffer.getInt(); count > 0; count--) {
+            String id = new UUID(buffer.getLong(), buffer.getLong()).toString();
+            GameSession session = new GameSession(id, this);
+            session.readSnapshot(buffer);
+            sequence = Math.max(sequence, session.getSequence());
+            games.put(id, session);
+        }
+    }
+
+    private void scan(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+            while (channel.read(buffer) > 0 || buffer.position() >= RECORD_BYTES) {
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    if (!apply(buffer)) {
+                        return;
+                    }
+                }
+                buffer.compact();
+            }
+        }
+    }
+
+    private boolean apply(ByteBuffer buffer) {
+        int start = buffer.position();
+        checksum.reset();
+        checksum.update(buffer.array(), start, CHECKSUMMED_BYTES);
+        if (buffer.getInt(start + CHECKSUMMED_BYTES) != (int) checksum.getValue()) {
+            return false;
+        }
+        long number = buffer.getLong();
+        String id = new UUID(buffer.getLong(), buffer.getLong()).toString();
+        byte type = buffer.get();
+        buffer.get();
+        int ply = buffer.getShort() & 0xFFFF;
+        int move = buffer.getInt();
+        buffer.getInt();
+        sequence = Math.max(sequence, number);
+        GameSession session = games.get(id);
+        if (type == CREATE && session == null) {
+            session = new GameSession(id, this);
+            session.replay(CREATE, 0, Move.NONE, number);
+            games.put(id, session);
+        } else if (session != null && number > session.getSequence()) {
+            if (type == CLOSE) {
+                games.remove(id);
+            } else {
+                session.replay(type, ply, move, number);
+            }
+        }
+        return true;
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(name(number, LOG_SUFFIX)), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE);
+        try {
+            syncDirectory();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return channel;
+    }
+
+    private List<Path> list(String suffix) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "games-*" + suffix)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static String name(long number, String suffix) {
+        return String.format("games-%012d%s", number, suffix);
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("games-".length(), name.indexOf('.')));
+    }
+
+    @Override
+    public void close() throws IOException {
+        checkpoints.shutdownNow();
+        synchronized (checkpointLock) {
+            lock.lock();
+            try {
+                closed = true;
+                appended.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.close();
+        }
+    }
+}
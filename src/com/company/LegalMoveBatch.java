@@ -0,0 +1,85 @@
+package com.company;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class LegalMoveBatch {
+    public static final int ENCODED_BYTES = PositionCodec.ENCODED_BYTES;
+    public static final int MOVES_PER_POSITION = MoveGenerator.MAX_MOVES;
+    public static final byte CHECK = 1;
+    public static final byte CHECKMATE = 2;
+    public static final byte STALEMATE = 4;
+    public static final int DEFAULT_CHUNK = 64;
+    private static final ThreadLocal<Position> POSITIONS = ThreadLocal.withInitial(Position::new);
+
+    private LegalMoveBatch() {
+    }
+
+    public static void generate(ByteBuffer positions, int count, int[] moves, int[] counts, byte[] flags, ForkJoinPool pool) {
+        generate(positions, count, moves, counts, flags, pool, DEFAULT_CHUNK);
+    }
+
+    public static void generate(ByteBuffer positions, int count, int[] moves, int[] counts, byte[] flags,
+                                ForkJoinPool pool, int chunk) {
+        if (count < 0 || positions.remaining() < (long) count * ENCODED_BYTES) {
+            throw new IllegalArgumentException("Buffer holds less than " + count + " encoded positions");
+        }
+        if (moves.length < (long) count * MOVES_PER_POSITION || counts.length < count || flags.length < count) {
+            throw new IllegalArgumentException("Output arrays are too small for " + count + " positions");
+        }
+        if (chunk < 1) {
+            throw new IllegalArgumentException("Chunk must hold at least one position");
+        }
+        pool.invoke(new Chunk(positions, positions.position(), 0, count, moves, counts, flags, chunk));
+    }
+
+    static void generate(Position position, int[] moves, int offset, int[] counts, byte[] flags, int index) {
+        int legal = MoveGenerator.generateLegal(position, moves, offset) - offset;
+        boolean inCheck = position.isCheck(position.sideToMove());
+        byte flag = inCheck ? CHECK : 0;
+        if (legal == 0) {
+            flag |= inCheck ? CHECKMATE : STALEMATE;
+        }
+        counts[index] = legal;
+        flags[index] = flag;
+    }
+
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient ByteBuffer positions;
+        private final int base;
+        private final int from;
+        private final int to;
+        private final int[] moves;
+        private final int[] counts;
+        private final byte[] flags;
+        private final int chunk;
+
+        Chunk(ByteBuffer positions, int base, int from, int to, int[] moves, int[] counts, byte[] flags, int chunk) {
+            this.positions = positions;
+            this.base = base;
+            this.from = from;
+            this.to = to;
+            this.moves = moves;
+            this.counts = counts;
+            this.flags = flags;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > chunk) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Chunk(positions, base, from, middle, moves, counts, flags, chunk),
+                        new Chunk(positions, base, middle, to, moves, counts, flags, chunk));
+                return;
+            }
+            Position position = POSITIONS.get();
+            for (int i = from; i < to; i++) {
+                PositionCodec.read(position, positions, base + i * ENCODED_BYTES);
+                generate(position, moves, i * MOVES_PER_POSITION, counts, flags, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.company;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ForkJoinPool;
+
+public class LegalMoveBatchBenchmark {
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String[] lines = {"", "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 e1g1 f8e7", "f2f3 e7e5 g2g4 d8h4"};
+        ByteBuffer positions = ByteBuffer.allocateDirect(count * LegalMoveBatch.ENCODED_BYTES);
+        for (int i = 0; i < count; i++) {
+            PositionCodec.write(SmpBenchmark.play(lines[i % lines.length]), positions);
+        }
+        positions.flip();
+        int[] moves = new int[count * LegalMoveBatch.MOVES_PER_POSITION];
+        int[] counts = new int[count];
+        byte[] flags = new byte[count];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            LegalMoveBatch.generate(positions, count, moves, counts, flags, pool);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("%d positions in %dms, %.0f positions/s%n", count, elapsed / 1_000_000, count * 1e9 / elapsed);
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,121 @@
+package com.company;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+final class LegalMoveCache {
+    static final int DEFAULT_ENTRIES = 1 << 16;
+    static final LegalMoveCache SHARED = new LegalMoveCache(DEFAULT_ENTRIES);
+    private static final int WAYS = 4;
+    private static final int MOVES_PER_LONG = 4;
+    private static final int HEADER_LONGS = 2;
+    private final AtomicReferenceArray<long[]> entries;
+    private final byte[] referenced;
+    private final byte[] hands;
+    private final int setMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    LegalMoveCache(int capacity) {
+        if (capacity < WAYS) {
+            throw new IllegalArgumentException("Legal move cache needs at least " + WAYS + " entries, got " + capacity);
+        }
+        int sets = Integer.highestOneBit(capacity / WAYS);
+        entries = new AtomicReferenceArray<>(sets * WAYS);
+        referenced = new byte[sets * WAYS];
+        hands = new byte[sets];
+        setMask = sets - 1;
+    }
+
+    int generate(Position position, int[] moves) {
+        long key = position.key();
+        int set = set(key);
+        for (int slot = set * WAYS; slot < (set + 1) * WAYS; slot++) {
+            long[] entry = entries.get(slot);
+            if (entry != null && entry[0] == key) {
+                referenced[slot] = 1;
+                hits.increment();
+                return unpack(entry, moves);
+            }
+        }
+        misses.increment();
+        int count = MoveGenerator.generateLegal(position, moves, 0);
+        entries.set(victim(set), pack(key, moves, count));
+        return count;
+    }
+
+    private int victim(int set) {
+        int base = set * WAYS;
+        int hand = hands[set];
+        for (int step = 0; step < 2 * WAYS; step++, hand = (hand + 1) & (WAYS - 1)) {
+            int slot = base + hand;
+            if (entries.get(slot) == null) {
+                break;
+            }
+            if (referenced[slot] == 0) {
+                evictions.increment();
+                break;
+            }
+            referenced[slot] = 0;
+        }
+        hands[set] = (byte) ((hand + 1) & (WAYS - 1));
+        return base + hand;
+    }
+
+    private static long[] pack(long key, int[] moves, int count) {
+        long[] entry = new long[HEADER_LONGS + (count + MOVES_PER_LONG - 1) / MOVES_PER_LONG];
+        entry[0] = key;
+        entry[1] = count;
+        for (int i = 0; i < count; i++) {
+            entry[HEADER_LONGS + i / MOVES_PER_LONG] |= (moves[i] & 0xFFFFL) << 16 * (i % MOVES_PER_LONG);
+        }
+        return entry;
+    }
+
+    private static int unpack(long[] entry, int[] moves) {
+        int count = (int) entry[1];
+        for (int i = 0; i < count; i++) {
+            moves[i] = (int) (entry[HEADER_LONGS + i / MOVES_PER_LONG] >>> 16 * (i % MOVES_PER_LONG) & 0xFFFF);
+        }
+        return count;
+    }
+
+    private int set(long key) {
+        return (int) (key ^ key >>> 32) & setMask;
+    }
+
+    int capacity() {
+        return entries.length();
+    }
+
+    void clear() {
+        for (int slot = 0; slot < entries.length(); slot++) {
+            entries.set(slot, null);
+        }
+        resetStatistics();
+    }
+
+    void resetStatistics() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "move cache " + capacity() + " entries hits " + hits() + " misses " + misses() + " evictions " + evictions();
+    }
+}
@@ -11,6 +11,8 @@ public class Main {
     public static final String NEW_COMMAND = "new";
     public static final String BOARD_COMMAND = "board";
     public static final String HISTORY_COMMAND = "history";
+    public static final String PERFT_COMMAND = "perft";
+    public static final String UNDO_COMMAND = "undo";
 
     public static void main(String[] args) {
         System.out.println("Welcome to Chess!\n" + "Type 'help' for a list of commands");
@@ -44,12 +46,22 @@ public class Main {
                         move(game, scanner);
                     } catch (WrongMovementException e) {
                         System.out.println("Wrong command. Try once again please");
+                    } catch (IllegalStateException e) {
+                        System.out.println("This game has reached its length limit");
                     }
                     break;
                 case HISTORY_COMMAND:
                     System.out.println("Moves history:");
                     game.printMovesHistory();
                     break;
+                case UNDO_COMMAND:
+                    if (!game.takeBack()) {
+                        System.out.println("There is no move to take back");
+                    }
+                    break;
+                case PERFT_COMMAND:
+                    game.printPerft(scanner.nextInt());
+                    break;
                 default:
                     System.out.println("Wrong command. Try once again please");
             }
@@ -65,6 +77,8 @@ public class Main {
         System.out.println("'list'                      - List all possible moves");
         System.out.println("'move' <colrow> <colrow>    - Make a move");
         System.out.println("'history'                   - Show moves history");
+        System.out.println("'undo'                      - Take back the last move");
+        System.out.println("'perft' <depth>             - Count leaf nodes per move to a depth");
     }
 
     private static void move(Game game, Scanner scanner) throws WrongMovementException {
@@ -0,0 +1,131 @@
+package com.company;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class Metrics implements MetricsMXBean {
+    static final Timer MOVE_VALIDATION = new Timer("moveValidation");
+    static final Timer MOVE_APPLICATION = new Timer("moveApplication");
+    static final Timer GAME_OVER = new Timer("gameOver");
+    static final Timer MOVE_GENERATION = new Timer("moveGeneration");
+    static final Timer SEARCH = new Timer("search");
+    static final Timer SESSION_COMMAND = new Timer("sessionCommand");
+    static final Timer LOG_SYNC = new Timer("logSync");
+    static final LongAdder SEARCH_NODES = new LongAdder();
+    static final LongAdder SESSIONS_OPENED = new LongAdder();
+    static final LongAdder SESSIONS_FINISHED = new LongAdder();
+    static final LongAdder SESSIONS_EVICTED = new LongAdder();
+    private static final Timer[] TIMERS = {MOVE_VALIDATION, MOVE_APPLICATION, GAME_OVER, MOVE_GENERATION, SEARCH, SESSION_COMMAND, LOG_SYNC};
+    private static final Metrics INSTANCE = new Metrics();
+    private static final String DOMAIN = "com.company";
+    private static final ScheduledThreadPoolExecutor DUMPS = dumpExecutor();
+
+    private Metrics() {
+    }
+
+    public static synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName metrics = new ObjectName(DOMAIN + ":type=Metrics");
+            if (server.isRegistered(metrics)) {
+                return;
+            }
+            server.registerMBean(INSTANCE, metrics);
+            for (Timer timer : TIMERS) {
+                server.registerMBean(timer, new ObjectName(DOMAIN + ":type=Timer,name=" + timer.getName()));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register metrics MBeans", e);
+        }
+    }
+
+    public static ScheduledFuture<?> startDump(PrintStream out, long periodMillis) {
+        return DUMPS.scheduleAtFixedRate(() -> out.print(report()), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static ScheduledThreadPoolExecutor dumpExecutor() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    public static String report() {
+        StringBuilder report = new StringBuilder(1024);
+        report.append(String.format("%-16s %12s %12s %12s %12s %12s%n", "timer", "count", "mean ns", "p50 ns", "p99 ns", "max ns"));
+        for (Timer timer : TIMERS) {
+            report.append(String.format("%-16s %12d %12d %12d %12d %12d%n", timer.getName(), timer.getCount(),
+                    timer.getMeanNanos(), timer.get50thPercentileNanos(), timer.get99thPercentileNanos(), timer.getMaxNanos()));
+        }
+        report.append(String.format("search nodes %d, sessions opened %d, finished %d, evicted %d%n",
+                SEARCH_NODES.sum(), SESSIONS_OPENED.sum(), SESSIONS_FINISHED.sum(), SESSIONS_EVICTED.sum()));
+        report.append(LegalMoveCache.SHARED).append(System.lineSeparator());
+        return report.toString();
+    }
+
+    public static void resetAll() {
+        for (Timer timer : TIMERS) {
+            timer.reset();
+        }
+        SEARCH_NODES.reset();
+        SESSIONS_OPENED.reset();
+        SESSIONS_FINISHED.reset();
+        SESSIONS_EVICTED.reset();
+        LegalMoveCache.SHARED.resetStatistics();
+    }
+
+    @Override
+    public long getSearchNodes() {
+        return SEARCH_NODES.sum();
+    }
+
+    @Override
+    public long getSessionsOpened() {
+        return SESSIONS_OPENED.sum();
+    }
+
+    @Override
+    public long getSessionsFinished() {
+        return SESSIONS_FINISHED.sum();
+    }
+
+    @Override
+    public long getSessionsEvicted() {
+        return SESSIONS_EVICTED.sum();
+    }
+
+    @Override
+    public long getMoveCacheHits() {
+        return LegalMoveCache.SHARED.hits();
+    }
+
+    @Override
+    public long getMoveCacheMisses() {
+        return LegalMoveCache.SHARED.misses();
+    }
+
+    @Override
+    public long getMoveCacheEvictions() {
+        return LegalMoveCache.SHARED.evictions();
+    }
+
+    @Override
+    public String getReport() {
+        return report();
+    }
+
+    @Override
+    public void reset() {
+        resetAll();
+    }
+}
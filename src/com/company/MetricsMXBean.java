@@ -0,0 +1,21 @@
+package com.company;
+
+public interface MetricsMXBean {
+    long getSearchNodes();
+
+    long getSessionsOpened();
+
+    long getSessionsFinished();
+
+    long getSessionsEvicted();
+
+    long getMoveCacheHits();
+
+    long getMoveCacheMisses();
+
+    long getMoveCacheEvictions();
+
+    String getReport();
+
+    void reset();
+}
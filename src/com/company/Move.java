@@ -0,0 +1,61 @@
+package com.company;
+
+import static com.company.Piece.Type.*;
+
+public final class Move {
+    public static final int NONE = 0;
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = PROMOTION | CAPTURE;
+    private static final Piece.Type[] PROMOTIONS = {KNIGHT, BISHOP, ROOK, QUEEN};
+
+    private Move() {
+    }
+
+    public static int of(int from, int to, int flags) {
+        return from | to << 6 | flags << 12;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return move >>> 6 & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return move >>> 12 & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    static int promotion(Piece.Type type) {
+        for (int i = 0; i < PROMOTIONS.length; i++) {
+            if (PROMOTIONS[i] == type) {
+                return PROMOTION | i;
+            }
+        }
+        throw new IllegalArgumentException("Pawn cannot be promoted to " + type);
+    }
+
+    static Piece.Type promotionType(int move) {
+        return PROMOTIONS[flags(move) & 3];
+    }
+
+    public static String toString(int move) {
+        String value = "" + Position.file(from(move)) + Position.rank(from(move)) + Position.file(to(move)) + Position.rank(to(move));
+        return isPromotion(move) ? value + promotionType(move).displayName.toLowerCase() : value;
+    }
+}
@@ -0,0 +1,198 @@
+package com.company;
+
+import static com.company.Color.WHITE;
+import static com.company.Piece.Type.*;
+
+final class MoveGenerator {
+    static final int MAX_MOVES = 256;
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long FILE_H = FILE_A << 7;
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+    private static final int KING_SIDE = 1;
+    private static final int QUEEN_SIDE = 2;
+
+    private MoveGenerator() {
+    }
+
+    static int generate(Position position, Color color, int[] moves, int count) {
+        return generate(position, color, ~0L, ~0L, true, color == position.sideToMove(), moves, count);
+    }
+
+    static int generateCaptures(Position position, Color color, int[] moves, int count) {
+        return generate(position, color, ~0L, ~0L, false, color == position.sideToMove(), moves, count);
+    }
+
+    static int generateLegal(Position position, int[] moves, int count) {
+        Color us = position.sideToMove();
+        Color them = Position.opponent(us);
+        int king = position.kingSquare(us);
+        long occupied = position.occupied();
+        long own = position.pieces(us);
+        long diagonal = position.pieces(BISHOP, them) | position.pieces(QUEEN, them);
+        long straight = position.pieces(ROOK, them) | position.pieces(QUEEN, them);
+
+        long withoutKing = occupied & ~(1L << king);
+        for (long targets = Attacks.KING[king] & ~own; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (attackers(position, to, them, withoutKing) == 0) {
+                moves[count++] = Move.of(king, to, position.isEmpty(to) ? Move.QUIET : Move.CAPTURE);
+            }
+        }
+        long checkers = attackers(position, king, them, occupied);
+        if (Long.bitCount(checkers) > 1) {
+            return count;
+        }
+        long mask = ~0L;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            mask = checkers | Attacks.BETWEEN[king][checker];
+        } else {
+            count = generateCastling(position, us, king, moves, count);
+        }
+
+        long pinned = 0L;
+        long snipers = Attacks.bishop(king, 0L) & diagonal | Attacks.rook(king, 0L) & straight;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long between = Attacks.BETWEEN[king][Long.numberOfTrailingZeros(snipers)] & occupied;
+            if ((between & (between - 1)) == 0) {
+                pinned |= between & own;
+            }
+        }
+        long free = own & ~pinned & ~(1L << king);
+        count = generate(position, us, free, mask, true, false, moves, count);
+        for (long pins = pinned; pins != 0; pins &= pins - 1) {
+            int square = Long.numberOfTrailingZeros(pins);
+            count = generate(position, us, 1L << square, mask & Attacks.LINE[king][square], true, false, moves, count);
+        }
+
+        int enPassant = position.enPassant();
+        if (enPassant != Position.NO_SQUARE) {
+            long pawns = Attacks.PAWN[them.ordinal()][enPassant] & position.pieces(PAWN, us);
+            for (; pawns != 0; pawns &= pawns - 1) {
+                int move = Move.of(Long.numberOfTrailingZeros(pawns), enPassant, Move.EN_PASSANT);
+                position.makeMove(move);
+                if (!position.isCheck(us)) {
+                    moves[count++] = move;
+                }
+                position.unmakeMove();
+            }
+        }
+        return count;
+    }
+
+    private static long attackers(Position position, int square, Color color, long occupied) {
+        long queens = position.pieces(QUEEN, color);
+        return Attacks.KNIGHT[square] & position.pieces(KNIGHT, color)
+                | Attacks.KING[square] & position.pieces(KING, color)
+                | Attacks.PAWN[Position.opponent(color).ordinal()][square] & position.pieces(PAWN, color)
+                | Attacks.bishop(square, occupied) & (position.pieces(BISHOP, color) | queens)
+                | Attacks.rook(square, occupied) & (position.pieces(ROOK, color) | queens);
+    }
+
+    static int generate(Position position, int from, int[] moves, int count) {
+        int piece = position.pieceAt(from);
+        if (piece == Position.EMPTY) {
+            return count;
+        }
+        Color color = Position.colorOf(piece);
+        return generate(position, color, 1L << from, ~0L, true, color == position.sideToMove(), moves, count);
+    }
+
+    private static int generate(Position position, Color color, long from, long mask, boolean quiets, boolean enPassant,
+                                int[] moves, int count) {
+        long targets = (quiets ? ~position.pieces(color) : position.pieces(Position.opponent(color))) & mask;
+        count = generatePawnMoves(position, color, from, mask, quiets, enPassant, moves, count);
+        for (long knights = position.pieces(KNIGHT, color) & from; knights != 0; knights &= knights - 1) {
+            int square = Long.numberOfTrailingZeros(knights);
+            count = add(position, square, Attacks.KNIGHT[square] & targets, moves, count);
+        }
+        long occupied = position.occupied();
+        long queens = position.pieces(QUEEN, color);
+        for (long bishops = (position.pieces(BISHOP, color) | queens) & from; bishops != 0; bishops &= bishops - 1) {
+            int square = Long.numberOfTrailingZeros(bishops);
+            count = add(position, square, Attacks.bishop(square, occupied) & targets, moves, count);
+        }
+        for (long rooks = (position.pieces(ROOK, color) | queens) & from; rooks != 0; rooks &= rooks - 1) {
+            int square = Long.numberOfTrailingZeros(rooks);
+            count = add(position, square, Attacks.rook(square, occupied) & targets, moves, count);
+        }
+        for (long kings = position.pieces(KING, color) & from; kings != 0; kings &= kings - 1) {
+            int square = Long.numberOfTrailingZeros(kings);
+            count = add(position, square, Attacks.KING[square] & targets, moves, count);
+            if (quiets) {
+                count = generateCastling(position, color, square, moves, count);
+            }
+        }
+        return count;
+    }
+
+    private static int generateCastling(Position position, Color color, int king, int[] moves, int count) {
+        int rights = position.castlingRights() >>> (color == WHITE ? 0 : 2) & 3;
+        if (rights == 0 || position.isCheck(color)) {
+            return count;
+        }
+        long occupied = position.occupied();
+        Color opponent = Position.opponent(color);
+        if ((rights & KING_SIDE) != 0 && (occupied & (3L << king + 1)) == 0
+                && !position.isAttacked(king + 1, opponent) && !position.isAttacked(king + 2, opponent)) {
+            moves[count++] = Move.of(king, king + 2, Move.KING_CASTLE);
+        }
+        if ((rights & QUEEN_SIDE) != 0 && (occupied & (7L << king - 3)) == 0
+                && !position.isAttacked(king - 1, opponent) && !position.isAttacked(king - 2, opponent)) {
+            moves[count++] = Move.of(king, king - 2, Move.QUEEN_CASTLE);
+        }
+        return count;
+    }
+
+    private static int add(Position position, int from, long targets, int[] moves, int count) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves[count++] = Move.of(from, to, position.isEmpty(to) ? Move.QUIET : Move.CAPTURE);
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(Position position, Color color, long from, long mask, boolean quiets, boolean enPassant,
+                                         int[] moves, int count) {
+        long pawns = position.pieces(PAWN, color) & from;
+        long empty = ~position.occupied();
+        long opponents = position.occupied() & ~position.pieces(color) & mask;
+        long pushes = (quiets ? ~0L : RANK_1 | RANK_8) & mask;
+        if (color == WHITE) {
+            long single = pawns << 8 & empty;
+            count = addPawnMoves(single & pushes, -8, Move.QUIET, moves, count);
+            count = addPawnMoves(single << 8 & empty & pushes & Position.RANK_4, -16, Move.DOUBLE_PUSH, moves, count);
+            count = addPawnMoves((pawns & ~FILE_A) << 7 & opponents, -7, Move.CAPTURE, moves, count);
+            count = addPawnMoves((pawns & ~FILE_H) << 9 & opponents, -9, Move.CAPTURE, moves, count);
+        } else {
+            long single = pawns >>> 8 & empty;
+            count = addPawnMoves(single & pushes, 8, Move.QUIET, moves, count);
+            count = addPawnMoves(single >>> 8 & empty & pushes & Position.RANK_5, 16, Move.DOUBLE_PUSH, moves, count);
+            count = addPawnMoves((pawns & ~FILE_H) >>> 7 & opponents, 7, Move.CAPTURE, moves, count);
+            count = addPawnMoves((pawns & ~FILE_A) >>> 9 & opponents, 9, Move.CAPTURE, moves, count);
+        }
+        int square = position.enPassant();
+        if (square != Position.NO_SQUARE && enPassant) {
+            long attackers = Attacks.PAWN[Position.opponent(color).ordinal()][square] & pawns;
+            for (; attackers != 0; attackers &= attackers - 1) {
+                moves[count++] = Move.of(Long.numberOfTrailingZeros(attackers), square, Move.EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    private static int addPawnMoves(long targets, int offset, int flags, int[] moves, int count) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (((1L << to) & (RANK_1 | RANK_8)) != 0) {
+                for (int promotion = Move.promotion(QUEEN); promotion >= Move.PROMOTION; promotion--) {
+                    moves[count++] = Move.of(to + offset, to, promotion | flags);
+                }
+            } else {
+                moves[count++] = Move.of(to + offset, to, flags);
+            }
+        }
+        return count;
+    }
+}
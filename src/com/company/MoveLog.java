@@ -0,0 +1,103 @@
+package com.company;
+
+import java.util.Arrays;
+
+final class MoveLog {
+    private int[] moves = new int[64];
+    private int ply;
+    private int length;
+
+    void add(int move) {
+        if (ply == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[ply++] = move;
+        length = ply;
+    }
+
+    int undo() {
+        if (ply == 0) {
+            throw new IllegalStateException("Move log is at the first ply");
+        }
+        return moves[--ply];
+    }
+
+    int redo() {
+        if (ply == length) {
+            throw new IllegalStateException("Move log is at the last ply");
+        }
+        return moves[ply++];
+    }
+
+    int get(int ply) {
+        if (ply < 0 || ply >= length) {
+            throw new IndexOutOfBoundsException("No move at ply " + ply);
+        }
+        return moves[ply];
+    }
+
+    int ply() {
+        return ply;
+    }
+
+    int length() {
+        return length;
+    }
+
+    void clear() {
+        ply = 0;
+        length = 0;
+    }
+
+    void replay(Position position, int ply) {
+        if (ply < 0 || ply > length) {
+            throw new IllegalArgumentException("Ply " + ply + " is outside of the log of " + length + " plies");
+        }
+        Board.setupStartPosition(position);
+        for (int i = 0; i < ply; i++) {
+            position.makeMove(moves[i]);
+        }
+    }
+
+    String toUci() {
+        StringBuilder uci = new StringBuilder(ply * 5);
+        for (int i = 0; i < ply; i++) {
+            if (i > 0) {
+                uci.append(' ');
+            }
+            uci.append(Move.toString(moves[i]));
+        }
+        return uci.toString();
+    }
+
+    String toSan() {
+        return appendSan(new StringBuilder(ply * 5)).toString();
+    }
+
+    String toPgn(String result) {
+        StringBuilder pgn = new StringBuilder(ply * 5 + 64);
+        pgn.append("[Result \"").append(result).append("\"]\n\n");
+        appendSan(pgn);
+        if (ply > 0) {
+            pgn.append(' ');
+        }
+        return pgn.append(result).append('\n').toString();
+    }
+
+    private StringBuilder appendSan(StringBuilder san) {
+        Position position = new Position();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        Board.setupStartPosition(position);
+        for (int i = 0; i < ply; i++) {
+            if (i > 0) {
+                san.append(' ');
+            }
+            if (i % 2 == 0) {
+                san.append(i / 2 + 1).append(". ");
+            }
+            Notation.appendSan(san, position, moves[i], buffer);
+            position.makeMove(moves[i]);
+        }
+        return san;
+    }
+}
@@ -0,0 +1,144 @@
+package com.company;
+
+import static com.company.Piece.Type.PAWN;
+
+final class Notation {
+    private Notation() {
+    }
+
+    static int parseSan(Position position, String san, int[] moves) {
+        int end = san.length();
+        while (end > 0 && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        int count = MoveGenerator.generateLegal(position, moves, 0);
+        String text = san.substring(0, end).replace('0', 'O');
+        if (text.equals("O-O") || text.equals("O-O-O")) {
+            int flags = text.length() == 3 ? Move.KING_CASTLE : Move.QUEEN_CASTLE;
+            for (int i = 0; i < count; i++) {
+                if (Move.flags(moves[i]) == flags) {
+                    return moves[i];
+                }
+            }
+            throw new IllegalArgumentException("Illegal castling " + san);
+        }
+
+        Piece.Type promotion = null;
+        if (end > 0 && Character.isUpperCase(san.charAt(end - 1))) {
+            promotion = type(san.charAt(end - 1));
+            end -= end > 1 && san.charAt(end - 2) == '=' ? 2 : 1;
+        }
+        if (end < 2) {
+            throw new IllegalArgumentException("Wrong move " + san);
+        }
+        char toX = san.charAt(end - 2);
+        byte toY = (byte) (san.charAt(end - 1) - '0');
+        if (!Position.isValid(toX, toY)) {
+            throw new IllegalArgumentException("Wrong destination in move " + san);
+        }
+        int to = Position.square(toX, toY);
+        int start = 0;
+        Piece.Type type = PAWN;
+        if (Character.isUpperCase(san.charAt(0))) {
+            type = type(san.charAt(0));
+            start = 1;
+        }
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != '-') {
+                throw new IllegalArgumentException("Wrong move " + san);
+            }
+        }
+
+        int found = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+            if (Move.to(move) != to || Position.typeOf(position.pieceAt(from)) != type
+                    || fromFile >= 0 && (from & 7) != fromFile || fromRank >= 0 && from >>> 3 != fromRank
+                    || Move.isPromotion(move) != (promotion != null)
+                    || promotion != null && Move.promotionType(move) != promotion) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                throw new IllegalArgumentException("Ambiguous move " + san);
+            }
+            found = move;
+        }
+        if (found == Move.NONE) {
+            throw new IllegalArgumentException("Illegal move " + san);
+        }
+        return found;
+    }
+
+    static String toSan(Position position, int move, int[] moves) {
+        StringBuilder san = new StringBuilder(8);
+        appendSan(san, position, move, moves);
+        return san.toString();
+    }
+
+    static void appendSan(StringBuilder san, Position position, int move, int[] moves) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        Piece.Type type = Position.typeOf(position.pieceAt(from));
+        if (flags == Move.KING_CASTLE) {
+            san.append("O-O");
+        } else if (flags == Move.QUEEN_CASTLE) {
+            san.append("O-O-O");
+        } else if (type == PAWN) {
+            if (Move.isCapture(move)) {
+                san.append(Position.file(from)).append('x');
+            }
+            san.append(Position.file(to)).append(Position.rank(to));
+            if (Move.isPromotion(move)) {
+                san.append('=').append(Move.promotionType(move).displayName);
+            }
+        } else {
+            san.append(type.displayName);
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            int count = MoveGenerator.generateLegal(position, moves, 0);
+            for (int i = 0; i < count; i++) {
+                int other = Move.from(moves[i]);
+                if (other != from && Move.to(moves[i]) == to && position.pieceAt(other) == position.pieceAt(from)) {
+                    ambiguous = true;
+                    sameFile |= (other & 7) == (from & 7);
+                    sameRank |= other >>> 3 == from >>> 3;
+                }
+            }
+            if (ambiguous && (!sameFile || sameRank)) {
+                san.append(Position.file(from));
+            }
+            if (sameFile) {
+                san.append(Position.rank(from));
+            }
+            if (Move.isCapture(move)) {
+                san.append('x');
+            }
+            san.append(Position.file(to)).append(Position.rank(to));
+        }
+        Color us = position.sideToMove();
+        position.makeMove(move);
+        if (position.isCheck(Position.opponent(us))) {
+            san.append(MoveGenerator.generateLegal(position, moves, 0) > 0 ? '+' : '#');
+        }
+        position.unmakeMove();
+    }
+
+    private static Piece.Type type(char letter) {
+        for (Piece.Type type : Piece.Type.values()) {
+            if (type.displayName.charAt(0) == letter && type != PAWN) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown piece " + letter);
+    }
+}
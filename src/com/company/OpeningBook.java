@@ -0,0 +1,114 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class OpeningBook {
+    static final int MAGIC = 0x424F4F4B;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 16;
+    private final MappedByteBuffer buffer;
+    private final int count;
+
+    private OpeningBook(MappedByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an opening book file");
+        }
+        long count = buffer.getLong(8);
+        if (count < 0 || HEADER_BYTES + count * RECORD_BYTES != buffer.capacity()) {
+            throw new IllegalArgumentException("Opening book is truncated or corrupted");
+        }
+        this.buffer = buffer;
+        this.count = (int) count;
+    }
+
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Opening book is larger than 2GB: " + path);
+            }
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    int probe(Position position, int[] moves) {
+        long key = position.key();
+        int first = lowerBound(key);
+        int legal = MoveGenerator.generateLegal(position, moves, 0);
+        long total = 0;
+        for (int i = first; i < count && key(i) == key; i++) {
+            if (isLegal(move(i), moves, legal)) {
+                total += weight(i);
+            }
+        }
+        if (total == 0) {
+            return Move.NONE;
+        }
+        long pick = ThreadLocalRandom.current().nextLong(total);
+        for (int i = first; ; i++) {
+            if (isLegal(move(i), moves, legal)) {
+                pick -= weight(i);
+                if (pick < 0) {
+                    return move(i);
+                }
+            }
+        }
+    }
+
+    int entries(long key, int[] moves, int[] weights) {
+        int found = 0;
+        for (int i = lowerBound(key); i < count && key(i) == key && found < moves.length; i++) {
+            moves[found] = move(i);
+            weights[found++] = weight(i);
+        }
+        return found;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (key(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isLegal(int move, int[] moves, int count) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long key(int index) {
+        return buffer.getLong(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    private int move(int index) {
+        return buffer.getInt(HEADER_BYTES + index * RECORD_BYTES + 8);
+    }
+
+    private int weight(int index) {
+        return buffer.getInt(HEADER_BYTES + index * RECORD_BYTES + 12);
+    }
+
+    static void writeHeader(ByteBuffer buffer, long count) {
+        buffer.putInt(MAGIC).putInt(1).putLong(count);
+    }
+}
@@ -0,0 +1,169 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public final class OpeningBookBuilder {
+    public static final int DEFAULT_MAX_PLIES = 24;
+    private static final int WIN_WEIGHT = 2;
+    private static final int DRAW_WEIGHT = 1;
+    private final int maxPlies;
+    private final Position position = new Position();
+    private long[] keys = new long[1024];
+    private long[] values = new long[1024];
+    private int size;
+
+    public OpeningBookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    void add(ReplayResult result) {
+        if (!result.isValid()) {
+            return;
+        }
+        PgnGame game = result.getGame();
+        String fen = game.getTag("FEN");
+        if (fen != null) {
+            Fen.parse(position, fen);
+        } else {
+            Board.setupStartPosition(position);
+        }
+        int[] moves = result.getMoves();
+        for (int ply = 0; ply < Math.min(maxPlies, moves.length); ply++) {
+            int weight = weight(game.getResult(), position.sideToMove());
+            if (weight > 0) {
+                add(position.key(), moves[ply], weight);
+            }
+            position.makeMove(moves[ply]);
+        }
+    }
+
+    private void add(long key, int move, int weight) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size++] = (long) move << 32 | weight;
+    }
+
+    private static int weight(String result, Color side) {
+        switch (result) {
+            case "1-0":
+                return side == Color.WHITE ? WIN_WEIGHT : 0;
+            case "0-1":
+                return side == Color.BLACK ? WIN_WEIGHT : 0;
+            case "1/2-1/2":
+                return DRAW_WEIGHT;
+            default:
+                return 0;
+        }
+    }
+
+    long write(Path path) throws IOException {
+        sort(0, size - 1);
+        int records = 0;
+        for (int i = 0; i < size; i++) {
+            if (records > 0 && keys[records - 1] == keys[i] && values[records - 1] >>> 32 == values[i] >>> 32) {
+                values[records - 1] += values[i] & 0xFFFFFFFFL;
+            } else {
+                keys[records] = keys[i];
+                values[records++] = values[i];
+            }
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            OpeningBook.writeHeader(buffer, records);
+            for (int i = 0; i < records; i++) {
+                if (buffer.remaining() < OpeningBook.RECORD_BYTES) {
+                    flush(channel, buffer);
+                }
+                buffer.putLong(keys[i]).putInt((int) (values[i] >>> 32)).putInt((int) Math.min(Integer.MAX_VALUE, values[i] & 0xFFFFFFFFL));
+            }
+            flush(channel, buffer);
+        }
+        size = records;
+        return records;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void sort(int low, int high) {
+        while (high - low > 16) {
+            int middle = (low + high) >>> 1;
+            long pivotKey = keys[middle];
+            long pivotValue = values[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(keys[i], values[i], pivotKey, pivotValue) < 0) {
+                    i++;
+                }
+                while (compare(keys[j], values[j], pivotKey, pivotValue) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (j - low < high - i) {
+                sort(low, j);
+                low = i;
+            } else {
+                sort(i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && compare(keys[j - 1], values[j - 1], keys[j], values[j]) > 0; j--) {
+                swap(j - 1, j);
+            }
+        }
+    }
+
+    private static int compare(long key, long value, long otherKey, long otherValue) {
+        int order = Long.compare(key, otherKey);
+        return order != 0 ? order : Long.compare(value >>> 32, otherValue >>> 32);
+    }
+
+    private void swap(int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: OpeningBookBuilder <games.pgn> <book.bin> [maxPlies] [threads]");
+            return;
+        }
+        int maxPlies = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_MAX_PLIES;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        try (PgnReader reader = PgnReader.open(Paths.get(args[0]))) {
+            PgnReplay.replay(reader, pool, threads * 64).forEach(builder::add);
+        } finally {
+            pool.shutdown();
+        }
+        long records = builder.write(Paths.get(args[1]));
+        System.out.printf("%d book records written in %dms%n", records, (System.nanoTime() - start) / 1_000_000);
+    }
+}
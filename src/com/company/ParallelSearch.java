@@ -0,0 +1,102 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+class ParallelSearch implements AutoCloseable {
+    private static final ExecutorService HELPERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "search-helper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final Position[] positions;
+
+    ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Parallel search needs at least one thread, got " + threads);
+        }
+        this.table = table;
+        searches = new Search[threads];
+        positions = new Position[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+            searches[i].diversify(1 + i % 2, i == 0 ? 0L : 0x9E3779B97F4A7C15L * i);
+            positions[i] = new Position();
+        }
+    }
+
+    int threads() {
+        return searches.length;
+    }
+
+    TranspositionTable table() {
+        return table;
+    }
+
+    void setTablebases(Tablebases tablebases) {
+        for (Search search : searches) {
+            search.setTablebases(tablebases);
+        }
+    }
+
+    SearchResult bestMove(Position position, long timeBudgetMillis) {
+        return bestMove(position, timeBudgetMillis, Search.MAX_PLY - 1);
+    }
+
+    SearchResult bestMove(Position position, long timeBudgetMillis, int maxDepth) {
+        long start = System.nanoTime();
+        table.newSearch();
+        for (Position copy : positions) {
+            copy.copyFrom(position);
+        }
+        List<Future<SearchResult>> futures = new ArrayList<>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++) {
+            Search search = searches[i];
+            Position copy = positions[i];
+            futures.add(HELPERS.submit(() -> search.bestMove(copy, timeBudgetMillis, maxDepth)));
+        }
+        SearchResult best = searches[0].bestMove(positions[0], timeBudgetMillis, maxDepth);
+        long nodes = best.getNodes();
+        for (int i = 1; i < searches.length; i++) {
+            SearchResult result = join(searches[i], futures.get(i - 1));
+            nodes += result.getNodes();
+            if (result.getDepth() > best.getDepth() && result.getMove() != Move.NONE) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.getMove(), best.getScore(), best.getDepth(), nodes, System.nanoTime() - start);
+    }
+
+    private static SearchResult join(Search search, Future<SearchResult> future) {
+        try {
+            while (true) {
+                search.stop();
+                try {
+                    return future.get(1, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // the helper may have started after the first stop request
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for search helpers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.company;
+
+class Perft {
+    private static final String[] REFERENCE_POSITIONS = {
+            Fen.START_POSITION,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+    };
+    private static final long[][] REFERENCE_NODES = {
+            {20, 400, 8902, 197281, 4865609, 119060324},
+            {48, 2039, 97862, 4085603, 193690690},
+            {14, 191, 2812, 43238, 674624, 11030083},
+            {6, 264, 9467, 422333, 15833292},
+            {44, 1486, 62379, 2103487, 89941194}
+    };
+    private final int[][] moves = new int[Search.MAX_PLY][MoveGenerator.MAX_MOVES];
+
+    long perft(Position position, int depth) {
+        return depth <= 0 ? 1 : perft(position, depth, 0);
+    }
+
+    long divide(Position position, int depth, StringBuilder out) {
+        if (depth <= 0) {
+            return 1;
+        }
+        int[] list = moves[0];
+        int count = MoveGenerator.generateLegal(position, list, 0);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(list[i]);
+            long nodes = depth == 1 ? 1 : perft(position, depth - 1, 1);
+            out.append(Move.toString(list[i])).append(": ").append(nodes).append('\n');
+            total += nodes;
+            position.unmakeMove();
+        }
+        out.append("Nodes searched: ").append(total).append('\n');
+        return total;
+    }
+
+    private long perft(Position position, int depth, int ply) {
+        int[] list = moves[ply];
+        int count = MoveGenerator.generateLegal(position, list, 0);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(list[i]);
+            nodes += perft(position, depth - 1, ply + 1);
+            position.unmakeMove();
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        Perft perft = new Perft();
+        Position position = new Position();
+        boolean failed = false;
+        for (int i = 0; i < REFERENCE_POSITIONS.length; i++) {
+            Fen.parse(position, REFERENCE_POSITIONS[i]);
+            System.out.println(REFERENCE_POSITIONS[i]);
+            for (int depth = 1; depth <= Math.min(maxDepth, REFERENCE_NODES[i].length); depth++) {
+                long start = System.nanoTime();
+                long nodes = perft.perft(position, depth);
+                long elapsed = Math.max(1, System.nanoTime() - start);
+                boolean ok = nodes == REFERENCE_NODES[i][depth - 1];
+                failed |= !ok;
+                System.out.printf("  depth %d: %d nodes, %d ms, %d nodes/s %s%n", depth, nodes, elapsed / 1_000_000,
+                        nodes * 1_000_000_000L / elapsed, ok ? "ok" : "FAILED, expected " + REFERENCE_NODES[i][depth - 1]);
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.company;
+
+import java.util.List;
+import java.util.Map;
+
+final class PgnGame {
+    private final Map<String, String> tags;
+    private final List<String> moves;
+    private final String result;
+
+    PgnGame(Map<String, String> tags, List<String> moves, String result) {
+        this.tags = tags;
+        this.moves = moves;
+        this.result = result;
+    }
+
+    Map<String, String> getTags() {
+        return tags;
+    }
+
+    String getTag(String name) {
+        return tags.get(name);
+    }
+
+    List<String> getMoves() {
+        return moves;
+    }
+
+    String getResult() {
+        return result;
+    }
+}
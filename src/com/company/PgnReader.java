@@ -0,0 +1,204 @@
+package com.company;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class PgnReader implements Closeable {
+    private static final long REGION_BYTES = 1L << 28;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private final ReadableByteChannel channel;
+    private final FileChannel file;
+    private final StringBuilder token = new StringBuilder(64);
+    private ByteBuffer buffer;
+    private long mapped;
+    private int peeked = -2;
+
+    PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        this.file = null;
+        this.buffer = ByteBuffer.allocate(BUFFER_BYTES).flip();
+    }
+
+    private PgnReader(FileChannel file) {
+        this.channel = file;
+        this.file = file;
+        this.buffer = ByteBuffer.allocate(0);
+    }
+
+    static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    PgnGame next() {
+        Map<String, String> tags = new LinkedHashMap<>();
+        List<String> moves = new ArrayList<>();
+        int c;
+        while ((c = peek()) != -1) {
+            if (c == '[' && !moves.isEmpty()) {
+                return new PgnGame(tags, moves, "*");
+            }
+            read();
+            if (c <= ' ') {
+                continue;
+            }
+            switch (c) {
+                case '[':
+                    readTag(tags);
+                    break;
+                case '{':
+                    skipUntil('}');
+                    break;
+                case ';':
+                case '%':
+                    skipUntil('\n');
+                    break;
+                case '(':
+                    skipVariation();
+                    break;
+                case '$':
+                    readToken(c);
+                    break;
+                default:
+                    String text = readToken(c);
+                    if (isResult(text)) {
+                        return new PgnGame(tags, moves, text);
+                    }
+                    String san = stripMoveNumber(text);
+                    if (!san.isEmpty()) {
+                        moves.add(san);
+                    }
+            }
+        }
+        return tags.isEmpty() && moves.isEmpty() ? null : new PgnGame(tags, moves, "*");
+    }
+
+    private void readTag(Map<String, String> tags) {
+        token.setLength(0);
+        int c;
+        while ((c = read()) != -1 && c > ' ' && c != '"' && c != ']') {
+            token.append((char) c);
+        }
+        String name = token.toString();
+        while (c != -1 && c != '"' && c != ']') {
+            c = read();
+        }
+        token.setLength(0);
+        if (c == '"') {
+            while ((c = read()) != -1 && c != '"') {
+                token.append((char) (c == '\\' ? read() : c));
+            }
+            skipUntil(']');
+        }
+        tags.put(name, token.toString());
+    }
+
+    private void skipVariation() {
+        int depth = 1;
+        int c;
+        while (depth > 0 && (c = read()) != -1) {
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipUntil('}');
+            } else if (c == ';') {
+                skipUntil('\n');
+            }
+        }
+    }
+
+    private void skipUntil(char end) {
+        int c;
+        do {
+            c = read();
+        } while (c != -1 && c != end);
+    }
+
+    private String readToken(int first) {
+        token.setLength(0);
+        token.append((char) first);
+        int c;
+        while ((c = peek()) > ' ' && "[]{}();$".indexOf(c) < 0) {
+            token.append((char) read());
+        }
+        return token.toString();
+    }
+
+    private static boolean isResult(String text) {
+        return text.equals("1-0") || text.equals("0-1") || text.equals("1/2-1/2") || text.equals("*");
+    }
+
+    private static String stripMoveNumber(String text) {
+        int i = 0;
+        while (i < text.length() && Character.isDigit(text.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == text.length() || text.charAt(i) != '.') {
+            return i == text.length() ? "" : text;
+        }
+        while (i < text.length() && text.charAt(i) == '.') {
+            i++;
+        }
+        return text.substring(i);
+    }
+
+    private int peek() {
+        if (peeked == -2) {
+            peeked = nextByte();
+        }
+        return peeked;
+    }
+
+    private int read() {
+        int c = peek();
+        peeked = -2;
+        return c;
+    }
+
+    private int nextByte() {
+        if (!buffer.hasRemaining() && !refill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private boolean refill() {
+        try {
+            if (file != null) {
+                long size = file.size();
+                if (mapped >= size) {
+                    return false;
+                }
+                long length = Math.min(REGION_BYTES, size - mapped);
+                buffer = file.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+                mapped += length;
+                return true;
+            }
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            buffer.flip();
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
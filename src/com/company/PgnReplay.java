@@ -0,0 +1,124 @@
+package com.company;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class PgnReplay {
+    private static final ThreadLocal<Position> POSITIONS = ThreadLocal.withInitial(Position::new);
+    private static final ThreadLocal<int[]> MOVES = ThreadLocal.withInitial(() -> new int[MoveGenerator.MAX_MOVES]);
+
+    private PgnReplay() {
+    }
+
+    static Stream<ReplayResult> replay(PgnReader reader, ForkJoinPool pool, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one game must be in flight");
+        }
+        Iterator<ReplayResult> results = new Iterator<>() {
+            private final BlockingQueue<ReplayResult> completed = new LinkedBlockingQueue<>();
+            private boolean exhausted;
+            private int pending;
+
+            @Override
+            public boolean hasNext() {
+                submit();
+                return pending > 0;
+            }
+
+            @Override
+            public ReplayResult next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    ReplayResult result = completed.take();
+                    pending--;
+                    return result;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a replayed game", e);
+                }
+            }
+
+            private void submit() {
+                while (!exhausted && pending < maxInFlight) {
+                    PgnGame game = reader.next();
+                    if (game == null) {
+                        exhausted = true;
+                    } else {
+                        pending++;
+                        pool.execute(() -> completed.add(replay(game)));
+                    }
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results, Spliterator.NONNULL), false);
+    }
+
+    static ReplayResult replay(PgnGame game) {
+        Position position = POSITIONS.get();
+        int[] buffer = MOVES.get();
+        int[] moves = new int[game.getMoves().size()];
+        int plies = 0;
+        try {
+            String fen = game.getTag("FEN");
+            if (fen != null) {
+                Fen.parse(position, fen);
+            } else {
+                Board.setupStartPosition(position);
+            }
+            for (String san : game.getMoves()) {
+                int move = Notation.parseSan(position, san, buffer);
+                position.makeMove(move);
+                moves[plies++] = move;
+            }
+            return new ReplayResult(game, moves, position.key(), null);
+        } catch (RuntimeException e) {
+            return new ReplayResult(game, Arrays.copyOf(moves, plies), position.key(), e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: PgnReplay <file.pgn> [threads]");
+            return;
+        }
+        Path path = Paths.get(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        LongAdder games = new LongAdder();
+        LongAdder plies = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        try (PgnReader reader = PgnReader.open(path)) {
+            replay(reader, pool, threads * 64).forEach(result -> {
+                games.increment();
+                plies.add(result.getPlies());
+                if (!result.isValid()) {
+                    errors.increment();
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games, %d plies, %d errors in %.2fs on %d threads%n",
+                games.sum(), plies.sum(), errors.sum(), seconds, threads);
+        System.out.printf("%.0f games/s, %.0f plies/s%n", games.sum() / seconds, plies.sum() / seconds);
+    }
+}
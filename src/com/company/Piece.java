@@ -1,6 +1,7 @@
 package com.company;
 
 public class Piece {
+    private static final Piece[] PIECES = new Piece[Type.values().length * Color.values().length];
     protected final Type type;
     protected final Color color;
 
@@ -9,6 +10,18 @@ public class Piece {
         this.color = color;
     }
 
+    static {
+        for (Color color : Color.values()) {
+            for (Type type : Type.values()) {
+                PIECES[Position.piece(type, color)] = new Piece(type, color);
+            }
+        }
+    }
+
+    static Piece of(int piece) {
+        return piece == Position.EMPTY ? null : PIECES[piece];
+    }
+
     enum Type {
         KING("K"), QUEEN("Q"), BISHOP("B"), KNIGHT("N"), ROOK("R"), PAWN("P");
 
@@ -0,0 +1,91 @@
+package com.company;
+
+import static com.company.Color.WHITE;
+import static com.company.Piece.Type.*;
+
+final class PieceSquareEvaluator implements Evaluator {
+    static final PieceSquareEvaluator INSTANCE = new PieceSquareEvaluator();
+    private static final int[] MATERIAL = new int[Piece.Type.values().length];
+    private static final int[][] TABLES = new int[Piece.Type.values().length][];
+
+    static {
+        MATERIAL[KING.ordinal()] = 0;
+        MATERIAL[QUEEN.ordinal()] = 900;
+        MATERIAL[BISHOP.ordinal()] = 330;
+        MATERIAL[KNIGHT.ordinal()] = 320;
+        MATERIAL[ROOK.ordinal()] = 500;
+        MATERIAL[PAWN.ordinal()] = 100;
+        TABLES[PAWN.ordinal()] = new int[]{
+                0, 0, 0, 0, 0, 0, 0, 0,
+                50, 50, 50, 50, 50, 50, 50, 50,
+                10, 10, 20, 30, 30, 20, 10, 10,
+                5, 5, 10, 25, 25, 10, 5, 5,
+                0, 0, 0, 20, 20, 0, 0, 0,
+                5, -5, -10, 0, 0, -10, -5, 5,
+                5, 10, 10, -20, -20, 10, 10, 5,
+                0, 0, 0, 0, 0, 0, 0, 0
+        };
+        TABLES[KNIGHT.ordinal()] = new int[]{
+                -50, -40, -30, -30, -30, -30, -40, -50,
+                -40, -20, 0, 0, 0, 0, -20, -40,
+                -30, 0, 10, 15, 15, 10, 0, -30,
+                -30, 5, 15, 20, 20, 15, 5, -30,
+                -30, 0, 15, 20, 20, 15, 0, -30,
+                -30, 5, 10, 15, 15, 10, 5, -30,
+                -40, -20, 0, 5, 5, 0, -20, -40,
+                -50, -40, -30, -30, -30, -30, -40, -50
+        };
+        TABLES[BISHOP.ordinal()] = new int[]{
+                -20, -10, -10, -10, -10, -10, -10, -20,
+                -10, 0, 0, 0, 0, 0, 0, -10,
+                -10, 0, 5, 10, 10, 5, 0, -10,
+                -10, 5, 5, 10, 10, 5, 5, -10,
+                -10, 0, 10, 10, 10, 10, 0, -10,
+                -10, 10, 10, 10, 10, 10, 10, -10,
+                -10, 5, 0, 0, 0, 0, 5, -10,
+                -20, -10, -10, -10, -10, -10, -10, -20
+        };
+        TABLES[ROOK.ordinal()] = new int[]{
+                0, 0, 0, 0, 0, 0, 0, 0,
+                5, 10, 10, 10, 10, 10, 10, 5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                -5, 0, 0, 0, 0, 0, 0, -5,
+                0, 0, 0, 5, 5, 0, 0, 0
+        };
+        TABLES[QUEEN.ordinal()] = new int[]{
+                -20, -10, -10, -5, -5, -10, -10, -20,
+                -10, 0, 0, 0, 0, 0, 0, -10,
+                -10, 0, 5, 5, 5, 5, 0, -10,
+                -5, 0, 5, 5, 5, 5, 0, -5,
+                0, 0, 5, 5, 5, 5, 0, -5,
+                -10, 5, 5, 5, 5, 5, 0, -10,
+                -10, 0, 5, 0, 0, 0, 0, -10,
+                -20, -10, -10, -5, -5, -10, -10, -20
+        };
+        TABLES[KING.ordinal()] = new int[]{
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -30, -40, -40, -50, -50, -40, -40, -30,
+                -20, -30, -30, -40, -40, -30, -30, -20,
+                -10, -20, -20, -20, -20, -20, -20, -10,
+                20, 20, 0, 0, 0, 0, 20, 20,
+                20, 30, 10, 0, 0, 10, 30, 20
+        };
+    }
+
+    private PieceSquareEvaluator() {
+    }
+
+    @Override
+    public int value(int piece, int square) {
+        int type = Position.typeOf(piece).ordinal();
+        if (Position.colorOf(piece) == WHITE) {
+            return MATERIAL[type] + TABLES[type][square ^ 56];
+        }
+        return -MATERIAL[type] - TABLES[type][square];
+    }
+}
@@ -0,0 +1,455 @@
+package com.company;
+
+import java.util.Arrays;
+
+import static com.company.Board.*;
+import static com.company.Color.BLACK;
+import static com.company.Color.WHITE;
+import static com.company.Piece.Type.*;
+
+class Position {
+    static final int SQUARES = 64;
+    static final int EMPTY = -1;
+    static final int NO_SQUARE = -1;
+    static final int MAX_PLY = 1024;
+    static final int WHITE_KING_SIDE = 1;
+    static final int WHITE_QUEEN_SIDE = 2;
+    static final int BLACK_KING_SIDE = 4;
+    static final int BLACK_QUEEN_SIDE = 8;
+    static final int ALL_CASTLING = WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE;
+    static final long RANK_4 = 0xFFL << 24;
+    static final long RANK_5 = 0xFFL << 32;
+    static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+    private static final Piece.Type[] TYPES = Piece.Type.values();
+    private static final Color[] COLORS = Color.values();
+    private static final int[] CASTLING_MASKS = new int[SQUARES];
+    private static final int[] DEFAULT_VALUES = values(PieceSquareEvaluator.INSTANCE);
+
+    static {
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING);
+        CASTLING_MASKS[0] &= ~WHITE_QUEEN_SIDE;
+        CASTLING_MASKS[4] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        CASTLING_MASKS[7] &= ~WHITE_KING_SIDE;
+        CASTLING_MASKS[56] &= ~BLACK_QUEEN_SIDE;
+        CASTLING_MASKS[60] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        CASTLING_MASKS[63] &= ~BLACK_KING_SIDE;
+    }
+
+    private final long[] pieces = new long[TYPES.length * COLORS.length];
+    private final long[] colors = new long[COLORS.length];
+    private final byte[] mailbox = new byte[SQUARES];
+    private final long[] attacksFrom = new long[SQUARES];
+    private final byte[] attackCounts = new byte[COLORS.length * SQUARES];
+    private final long[] attacked = new long[COLORS.length];
+    private final int[] undoMoves = new int[MAX_PLY];
+    private final int[] undoStates = new int[MAX_PLY];
+    private final long[] undoKeys = new long[MAX_PLY];
+    private Evaluator evaluator = PieceSquareEvaluator.INSTANCE;
+    private int[] values = DEFAULT_VALUES;
+    private long occupied;
+    private long key;
+    private int score;
+    private Color sideToMove = WHITE;
+    private int castlingRights;
+    private int enPassant = NO_SQUARE;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    private int ply;
+
+    Position() {
+        clear();
+    }
+
+    void clear() {
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        Arrays.fill(mailbox, (byte) EMPTY);
+        Arrays.fill(attacksFrom, 0L);
+        Arrays.fill(attackCounts, (byte) 0);
+        Arrays.fill(attacked, 0L);
+        occupied = 0L;
+        key = 0L;
+        score = 0;
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassant = NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        ply = 0;
+    }
+
+    void copyFrom(Position other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        System.arraycopy(other.attacksFrom, 0, attacksFrom, 0, attacksFrom.length);
+        System.arraycopy(other.attackCounts, 0, attackCounts, 0, attackCounts.length);
+        System.arraycopy(other.attacked, 0, attacked, 0, attacked.length);
+        System.arraycopy(other.undoMoves, 0, undoMoves, 0, other.ply);
+        System.arraycopy(other.undoStates, 0, undoStates, 0, other.ply);
+        System.arraycopy(other.undoKeys, 0, undoKeys, 0, other.ply);
+        evaluator = other.evaluator;
+        values = other.values;
+        occupied = other.occupied;
+        key = other.key;
+        score = other.score;
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassant = other.enPassant;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        ply = other.ply;
+    }
+
+    Position copy() {
+        Position copy = new Position();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    void setState(Color sideToMove, int castlingRights, int enPassant, int halfmoveClock) {
+        key ^= stateKey();
+        this.sideToMove = sideToMove;
+        this.castlingRights = castlingRights;
+        this.enPassant = enPassant;
+        this.halfmoveClock = halfmoveClock;
+        key ^= stateKey();
+    }
+
+    void setEvaluator(Evaluator evaluator) {
+        this.evaluator = evaluator;
+        values = evaluator == PieceSquareEvaluator.INSTANCE ? DEFAULT_VALUES : values(evaluator);
+        score = 0;
+        for (int square = 0; square < SQUARES; square++) {
+            if (mailbox[square] != EMPTY) {
+                score += values[mailbox[square] * SQUARES + square];
+            }
+        }
+    }
+
+    private static int[] values(Evaluator evaluator) {
+        int[] values = new int[TYPES.length * COLORS.length * SQUARES];
+        for (int piece = 0; piece < TYPES.length * COLORS.length; piece++) {
+            for (int square = 0; square < SQUARES; square++) {
+                values[piece * SQUARES + square] = evaluator.value(piece, square);
+            }
+        }
+        return values;
+    }
+
+    int score() {
+        return score;
+    }
+
+    int evaluate() {
+        return evaluator.evaluate(this);
+    }
+
+    private long stateKey() {
+        return (sideToMove == BLACK ? Zobrist.SIDE : 0L) ^ Zobrist.CASTLING[castlingRights] ^ Zobrist.enPassant(enPassant);
+    }
+
+    void put(int square, int piece) {
+        long bit = 1L << square;
+        pieces[piece] |= bit;
+        colors[piece / TYPES.length] |= bit;
+        occupied |= bit;
+        mailbox[square] = (byte) piece;
+        key ^= Zobrist.PIECES[piece][square];
+        score += values[piece * SQUARES + square];
+        refreshSliders(square);
+        setAttacks(square, piece / TYPES.length, attacks(piece, square));
+    }
+
+    int remove(int square) {
+        int piece = mailbox[square];
+        if (piece != EMPTY) {
+            long bit = ~(1L << square);
+            pieces[piece] &= bit;
+            colors[piece / TYPES.length] &= bit;
+            occupied &= bit;
+            mailbox[square] = (byte) EMPTY;
+            key ^= Zobrist.PIECES[piece][square];
+            score -= values[piece * SQUARES + square];
+            setAttacks(square, piece / TYPES.length, 0L);
+            refreshSliders(square);
+        }
+        return piece;
+    }
+
+    private void refreshSliders(int square) {
+        long diagonal = pieces[QUEEN.ordinal()] | pieces[BISHOP.ordinal()]
+                | pieces[TYPES.length + QUEEN.ordinal()] | pieces[TYPES.length + BISHOP.ordinal()];
+        long straight = pieces[QUEEN.ordinal()] | pieces[ROOK.ordinal()]
+                | pieces[TYPES.length + QUEEN.ordinal()] | pieces[TYPES.length + ROOK.ordinal()];
+        long sliders = Attacks.bishop(square, occupied) & diagonal | Attacks.rook(square, occupied) & straight;
+        for (; sliders != 0; sliders &= sliders - 1) {
+            int slider = Long.numberOfTrailingZeros(sliders);
+            int piece = mailbox[slider];
+            setAttacks(slider, piece / TYPES.length, attacks(piece, slider));
+        }
+    }
+
+    private void setAttacks(int square, int color, long attacks) {
+        long previous = attacksFrom[square];
+        attacksFrom[square] = attacks;
+        int offset = color * SQUARES;
+        for (long lost = previous & ~attacks; lost != 0; lost &= lost - 1) {
+            int target = Long.numberOfTrailingZeros(lost);
+            if (--attackCounts[offset + target] == 0) {
+                attacked[color] &= ~(1L << target);
+            }
+        }
+        for (long gained = attacks & ~previous; gained != 0; gained &= gained - 1) {
+            int target = Long.numberOfTrailingZeros(gained);
+            if (attackCounts[offset + target]++ == 0) {
+                attacked[color] |= 1L << target;
+            }
+        }
+    }
+
+    private long attacks(int piece, int square) {
+        switch (typeOf(piece)) {
+            case KING:
+                return Attacks.KING[square];
+            case QUEEN:
+                return Attacks.queen(square, occupied);
+            case BISHOP:
+                return Attacks.bishop(square, occupied);
+            case KNIGHT:
+                return Attacks.KNIGHT[square];
+            case ROOK:
+                return Attacks.rook(square, occupied);
+            default:
+                return Attacks.PAWN[piece / TYPES.length][square];
+        }
+    }
+
+    void makeMove(int move) {
+        if (ply == MAX_PLY) {
+            throw new IllegalStateException("Undo stack is full after " + MAX_PLY + " plies");
+        }
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        long stateKey = stateKey();
+        undoKeys[ply] = key;
+        int captured = EMPTY;
+        if (flags == Move.EN_PASSANT) {
+            captured = remove(to ^ 8);
+        } else if (Move.isCapture(move)) {
+            captured = remove(to);
+        }
+        undoMoves[ply] = move;
+        undoStates[ply] = (captured + 1) | castlingRights << 4 | (enPassant + 1) << 8 | halfmoveClock << 15;
+        ply++;
+
+        int piece = remove(from);
+        put(to, Move.isPromotion(move) ? piece(Move.promotionType(move), sideToMove) : piece);
+        if (flags == Move.KING_CASTLE) {
+            put(to - 1, remove(to + 1));
+        } else if (flags == Move.QUEEN_CASTLE) {
+            put(to + 1, remove(to - 2));
+        }
+        halfmoveClock = captured != EMPTY || typeOf(piece) == PAWN ? 0 : halfmoveClock + 1;
+        enPassant = flags == Move.DOUBLE_PUSH ? to ^ 8 : NO_SQUARE;
+        castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        if (sideToMove == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = opponent(sideToMove);
+        key ^= stateKey ^ stateKey();
+    }
+
+    void unmakeMove() {
+        ply--;
+        int move = undoMoves[ply];
+        int state = undoStates[ply];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        sideToMove = opponent(sideToMove);
+        if (sideToMove == BLACK) {
+            fullmoveNumber--;
+        }
+        castlingRights = state >>> 4 & 0xF;
+        enPassant = (state >>> 8 & 0x7F) - 1;
+        halfmoveClock = state >>> 15;
+
+        if (flags == Move.KING_CASTLE) {
+            put(to + 1, remove(to - 1));
+        } else if (flags == Move.QUEEN_CASTLE) {
+            put(to - 2, remove(to + 1));
+        }
+        int piece = remove(to);
+        put(from, Move.isPromotion(move) ? piece(PAWN, sideToMove) : piece);
+        int captured = (state & 0xF) - 1;
+        if (captured != EMPTY) {
+            put(flags == Move.EN_PASSANT ? to ^ 8 : to, captured);
+        }
+        key = undoKeys[ply];
+    }
+
+    long key() {
+        return key;
+    }
+
+    Color sideToMove() {
+        return sideToMove;
+    }
+
+    int castlingRights() {
+        return castlingRights;
+    }
+
+    int enPassant() {
+        return enPassant;
+    }
+
+    int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    int ply() {
+        return ply;
+    }
+
+    int repetitions() {
+        int repetitions = 0;
+        int first = Math.max(0, ply - halfmoveClock);
+        for (int i = ply - 2; i >= first; i -= 2) {
+            if (undoKeys[i] == key) {
+                repetitions++;
+            }
+        }
+        return repetitions;
+    }
+
+    boolean hasInsufficientMaterial() {
+        long heavy = 0L;
+        long knights = 0L;
+        long bishops = 0L;
+        for (Color color : COLORS) {
+            heavy |= pieces(PAWN, color) | pieces(ROOK, color) | pieces(QUEEN, color);
+            knights |= pieces(KNIGHT, color);
+            bishops |= pieces(BISHOP, color);
+        }
+        if (heavy != 0) {
+            return false;
+        }
+        return Long.bitCount(knights | bishops) <= 1
+                || knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+    }
+
+    int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    boolean isEmpty(int square) {
+        return (occupied & (1L << square)) == 0;
+    }
+
+    long occupied() {
+        return occupied;
+    }
+
+    long pieces(Color color) {
+        return colors[color.ordinal()];
+    }
+
+    long pieces(Piece.Type type, Color color) {
+        return pieces[piece(type, color)];
+    }
+
+    int kingSquare(Color color) {
+        return Long.numberOfTrailingZeros(pieces[piece(KING, color)]);
+    }
+
+    boolean isCheck(Color color) {
+        int king = kingSquare(color);
+        return king < SQUARES && isAttacked(king, opponent(color));
+    }
+
+    long targets(int square) {
+        int piece = mailbox[square];
+        if (piece == EMPTY) {
+            return 0L;
+        }
+        Color color = colorOf(piece);
+        long own = colors[color.ordinal()];
+        switch (typeOf(piece)) {
+            case KING:
+                return Attacks.KING[square] & ~own;
+            case QUEEN:
+                return Attacks.queen(square, occupied) & ~own;
+            case BISHOP:
+                return Attacks.bishop(square, occupied) & ~own;
+            case KNIGHT:
+                return Attacks.KNIGHT[square] & ~own;
+            case ROOK:
+                return Attacks.rook(square, occupied) & ~own;
+            default:
+                return pawnTargets(square, color);
+        }
+    }
+
+    boolean isAttacked(int square, Color by) {
+        return (attacked[by.ordinal()] & 1L << square) != 0;
+    }
+
+    long attacks(Color color) {
+        return attacked[color.ordinal()];
+    }
+
+    private long pawnTargets(int square, Color color) {
+        long opponents = colors[color == WHITE ? BLACK.ordinal() : WHITE.ordinal()];
+        long empty = ~occupied;
+        long targets = Attacks.PAWN[color.ordinal()][square] & opponents;
+        if (color == WHITE) {
+            long single = (1L << square << 8) & empty;
+            return targets | single | (single << 8 & empty & RANK_4);
+        }
+        long single = (1L << square >>> 8) & empty;
+        return targets | single | (single >>> 8 & empty & RANK_5);
+    }
+
+    static int square(char x, byte y) {
+        return (y - MIN_NUMBER) * 8 + (x - MIN_LETTER);
+    }
+
+    static char file(int square) {
+        return (char) (MIN_LETTER + (square & 7));
+    }
+
+    static byte rank(int square) {
+        return (byte) (MIN_NUMBER + (square >>> 3));
+    }
+
+    static boolean isValid(char x, byte y) {
+        return MIN_LETTER <= x && x <= MAX_LETTER && MIN_NUMBER <= y && y <= MAX_NUMBER;
+    }
+
+    static int piece(Piece.Type type, Color color) {
+        return color.ordinal() * TYPES.length + type.ordinal();
+    }
+
+    static Piece.Type typeOf(int piece) {
+        return TYPES[piece % TYPES.length];
+    }
+
+    static Color opponent(Color color) {
+        return color == WHITE ? BLACK : WHITE;
+    }
+
+    static Color colorOf(int piece) {
+        return COLORS[piece / TYPES.length];
+    }
+}
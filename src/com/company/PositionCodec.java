@@ -0,0 +1,93 @@
+package com.company;
+
+import java.nio.ByteBuffer;
+
+import static com.company.Color.BLACK;
+import static com.company.Color.WHITE;
+import static com.company.Piece.Type.KING;
+import static com.company.Piece.Type.PAWN;
+
+final class PositionCodec {
+    static final int ENCODED_BYTES = 36;
+    private static final int MAX_HALFMOVE_CLOCK = 0x7F;
+    private static final int PIECES = Piece.Type.values().length * Color.values().length;
+
+    private PositionCodec() {
+    }
+
+    static void write(Position position, ByteBuffer buffer) {
+        for (int square = 0; square < Position.SQUARES; square += 2) {
+            buffer.put((byte) (position.pieceAt(square) + 1 | position.pieceAt(square + 1) + 1 << 4));
+        }
+        int enPassant = position.enPassant();
+        int state = (position.sideToMove() == BLACK ? 1 : 0)
+                | position.castlingRights() << 1
+                | (enPassant == Position.NO_SQUARE ? 0 : (enPassant & 7) + 1) << 5
+                | Math.min(position.halfmoveClock(), MAX_HALFMOVE_CLOCK) << 9;
+        buffer.putShort((short) state);
+        buffer.putShort((short) position.fullmoveNumber());
+    }
+
+    static void read(Position position, ByteBuffer buffer) {
+        read(position, buffer, buffer.position());
+        buffer.position(buffer.position() + ENCODED_BYTES);
+    }
+
+    static void read(Position position, ByteBuffer buffer, int offset) {
+        int whiteKings = 0;
+        int blackKings = 0;
+        for (int square = 0; square < Position.SQUARES; square++) {
+            int piece = piece(buffer, offset, square);
+            if (piece >= PIECES) {
+                throw new IllegalArgumentException("Wrong piece code " + (piece + 1) + " on square " + square + " of an encoded position");
+            }
+            if (piece == Position.EMPTY) {
+                continue;
+            }
+            if (Position.typeOf(piece) == KING) {
+                if (Position.colorOf(piece) == WHITE) {
+                    whiteKings++;
+                } else {
+                    blackKings++;
+                }
+            } else if (Position.typeOf(piece) == PAWN && (square < 8 || square >= 56)) {
+                throw new IllegalArgumentException("Pawn on square " + square + " of an encoded position");
+            }
+        }
+        if (whiteKings != 1 || blackKings != 1) {
+            throw new IllegalArgumentException("Encoded position must have exactly one king per side, got "
+                    + whiteKings + " white and " + blackKings + " black");
+        }
+        int state = buffer.getShort(offset + Position.SQUARES / 2) & 0xFFFF;
+        Color side = side(state);
+        int file = (state >>> 5 & 0xF) - 1;
+        int enPassant = enPassant(state);
+        if (file > 7 || enPassant != Position.NO_SQUARE && piece(buffer, offset, side == WHITE ? enPassant - 8 : enPassant + 8)
+                != Position.piece(PAWN, Position.opponent(side))) {
+            throw new IllegalArgumentException("Wrong en passant file " + file + " in an encoded position");
+        }
+        position.clear();
+        for (int square = 0; square < Position.SQUARES; square++) {
+            int piece = piece(buffer, offset, square);
+            if (piece != Position.EMPTY) {
+                position.put(square, piece);
+            }
+        }
+        position.setState(side, state >>> 1 & 0xF & Fen.availableCastling(position), enPassant, state >>> 9);
+        position.setFullmoveNumber(buffer.getShort(offset + Position.SQUARES / 2 + 2) & 0xFFFF);
+    }
+
+    static Color side(int state) {
+        return (state & 1) == 0 ? WHITE : BLACK;
+    }
+
+    static int enPassant(int state) {
+        int file = (state >>> 5 & 0xF) - 1;
+        return file < 0 ? Position.NO_SQUARE : (side(state) == WHITE ? 40 : 16) + file;
+    }
+
+    private static int piece(ByteBuffer buffer, int offset, int square) {
+        int pair = buffer.get(offset + square / 2);
+        return (((square & 1) == 0 ? pair : pair >>> 4) & 0xF) - 1;
+    }
+}
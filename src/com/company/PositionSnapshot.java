@@ -0,0 +1,63 @@
+package com.company;
+
+import java.nio.ByteBuffer;
+
+public final class PositionSnapshot {
+    private final byte[] encoded = new byte[PositionCodec.ENCODED_BYTES];
+    private final long key;
+    private final int ply;
+    private final int lastMove;
+    private final GameResult result;
+
+    PositionSnapshot(Board board, int ply, int lastMove, GameResult result) {
+        board.writeTo(ByteBuffer.wrap(encoded));
+        this.key = board.key();
+        this.ply = ply;
+        this.lastMove = lastMove;
+        this.result = result;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public int getPly() {
+        return ply;
+    }
+
+    public GameResult getResult() {
+        return result;
+    }
+
+    public Color getSideToMove() {
+        return PositionCodec.side(ByteBuffer.wrap(encoded).getShort(Position.SQUARES / 2));
+    }
+
+    public Piece getPiece(char x, byte y) {
+        if (!Position.isValid(x, y)) {
+            throw new IllegalArgumentException("Wrong cell " + x + y);
+        }
+        return Piece.of(piece(Position.square(x, y)));
+    }
+
+    private int piece(int square) {
+        int pair = encoded[square / 2];
+        return (((square & 1) == 0 ? pair : pair >>> 4) & 0xF) - 1;
+    }
+
+    public String getLastMove() {
+        return lastMove == Move.NONE ? "" : Move.toString(lastMove);
+    }
+
+    public String toFen() {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        int state = buffer.getShort(Position.SQUARES / 2) & 0xFFFF;
+        return Fen.toFen(this::piece, PositionCodec.side(state), state >>> 1 & 0xF, PositionCodec.enPassant(state), state >>> 9,
+                buffer.getShort(Position.SQUARES / 2 + 2) & 0xFFFF);
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+}
@@ -0,0 +1,31 @@
+package com.company;
+
+import java.io.PrintStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public interface RenderSink {
+    RenderSink HEADLESS = text -> {
+    };
+
+    void write(CharSequence text);
+
+    default boolean isHeadless() {
+        return this == HEADLESS;
+    }
+
+    static RenderSink of(PrintStream out) {
+        return text -> {
+            out.append(text);
+            out.flush();
+        };
+    }
+
+    static RenderSink log(Logger logger, Level level) {
+        return text -> {
+            if (logger.isLoggable(level)) {
+                logger.log(level, text.toString());
+            }
+        };
+    }
+}
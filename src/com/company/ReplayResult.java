@@ -0,0 +1,39 @@
+package com.company;
+
+final class ReplayResult {
+    private final PgnGame game;
+    private final int[] moves;
+    private final long finalKey;
+    private final String error;
+
+    ReplayResult(PgnGame game, int[] moves, long finalKey, String error) {
+        this.game = game;
+        this.moves = moves;
+        this.finalKey = finalKey;
+        this.error = error;
+    }
+
+    PgnGame getGame() {
+        return game;
+    }
+
+    int[] getMoves() {
+        return moves;
+    }
+
+    int getPlies() {
+        return moves.length;
+    }
+
+    long getFinalKey() {
+        return finalKey;
+    }
+
+    String getError() {
+        return error;
+    }
+
+    boolean isValid() {
+        return error == null;
+    }
+}
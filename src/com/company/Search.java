@@ -0,0 +1,326 @@
+package com.company;
+
+import java.util.Arrays;
+
+import static com.company.Piece.Type.*;
+
+class Search {
+    static final int MAX_PLY = 128;
+    static final int INFINITY = 32000;
+    static final int MATE = 31000;
+    private static final Piece.Type[] TYPES = Piece.Type.values();
+    private static final int[] PIECE_VALUES = new int[TYPES.length];
+    private static final int CAPTURE_SCORE = 1 << 30;
+    private static final int KILLER_SCORE = 1 << 29;
+    private static final int PREFERRED_SCORE = Integer.MAX_VALUE;
+    private static final int HISTORY_LIMIT = 1 << 28;
+    private static final int CHECK_INTERVAL = 1023;
+
+    static {
+        PIECE_VALUES[KING.ordinal()] = 0;
+        PIECE_VALUES[QUEEN.ordinal()] = 900;
+        PIECE_VALUES[BISHOP.ordinal()] = 330;
+        PIECE_VALUES[KNIGHT.ordinal()] = 320;
+        PIECE_VALUES[ROOK.ordinal()] = 500;
+        PIECE_VALUES[PAWN.ordinal()] = 100;
+    }
+
+    private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] scores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[TYPES.length * Color.values().length][Position.SQUARES];
+    private final TranspositionTable table;
+    private Tablebases tablebases;
+    private Position position;
+    private long deadline;
+    private long nodes;
+    private int rootMove;
+    private int firstDepth = 1;
+    private long orderingSeed;
+    private volatile boolean stopped;
+
+    Search() {
+        this(new TranspositionTable(TranspositionTable.DEFAULT_SIZE_MB));
+    }
+
+    Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    SearchResult bestMove(Position position, long timeBudgetMillis) {
+        return bestMove(position, timeBudgetMillis, MAX_PLY - 1);
+    }
+
+    SearchResult bestMove(Position position, long timeBudgetMillis, int maxDepth) {
+        long start = System.nanoTime();
+        this.position = position;
+        deadline = timeBudgetMillis >= Long.MAX_VALUE / 2_000_000 ? Long.MAX_VALUE : start + timeBudgetMillis * 1_000_000;
+        nodes = 0;
+        stopped = false;
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, Move.NONE);
+        }
+        for (int[] pieceHistory : history) {
+            Arrays.fill(pieceHistory, 0);
+        }
+
+        int bestMove = Move.NONE;
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = Math.min(firstDepth, maxDepth); depth <= maxDepth; depth++) {
+            rootMove = Move.NONE;
+            int score = negamax(depth, -INFINITY, INFINITY, 0, bestMove);
+            if (stopped || rootMove == Move.NONE) {
+                break;
+            }
+            bestMove = rootMove;
+            bestScore = score;
+            completedDepth = depth;
+            if (Math.abs(score) >= MATE - MAX_PLY) {
+                break;
+            }
+        }
+        if (bestMove == Move.NONE) {
+            bestMove = firstLegalMove();
+        }
+        Metrics.SEARCH.stop(start);
+        Metrics.SEARCH_NODES.add(nodes);
+        return new SearchResult(bestMove, bestScore, completedDepth, nodes, System.nanoTime() - start);
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    void diversify(int firstDepth, long orderingSeed) {
+        this.firstDepth = firstDepth;
+        this.orderingSeed = orderingSeed;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply, int preferred) {
+        if ((++nodes & CHECK_INTERVAL) == 0 && System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        if (ply > 0 && (position.halfmoveClock() >= 100 || position.repetitions() > 0)) {
+            return 0;
+        }
+        if (ply > 0 && tablebases != null) {
+            int value = tablebases.probe(position);
+            if (value != Tablebase.NOT_FOUND) {
+                return Tablebases.score(value, ply);
+            }
+        }
+        Color us = position.sideToMove();
+        boolean inCheck = position.isCheck(us);
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        if (ply >= MAX_PLY - 1 || position.ply() >= Position.MAX_PLY - 1) {
+            return evaluate();
+        }
+        long entry = table.probe(position.key());
+        if (entry != 0) {
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha) {
+                    return score;
+                }
+            }
+            if (preferred == Move.NONE) {
+                preferred = TranspositionTable.move(entry);
+            }
+        }
+
+        int[] list = moves[ply];
+        int count = MoveGenerator.generate(position, us, list, 0);
+        scoreMoves(ply, count, preferred);
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            position.makeMove(move);
+            if (position.isCheck(us)) {
+                position.unmakeMove();
+                continue;
+            }
+            legal++;
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1, Move.NONE);
+            position.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) {
+                        if (!Move.isCapture(move)) {
+                            updateQuietStatistics(move, depth, ply);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        if (legal == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(position.key(), bestMove, toTable(best, ply), depth, bound);
+        return best;
+    }
+
+    private static int toTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score + ply : score <= -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return score >= MATE - MAX_PLY ? score - ply : score <= -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    private int quiescence(int alpha, int beta, int ply) {
+        if ((++nodes & CHECK_INTERVAL) == 0 && System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+        int standPat = evaluate();
+        if (standPat >= beta || ply >= MAX_PLY - 1 || position.ply() >= Position.MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        Color us = position.sideToMove();
+        int[] list = moves[ply];
+        int count = MoveGenerator.generateCaptures(position, us, list, 0);
+        scoreMoves(ply, count, Move.NONE);
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(ply, i, count);
+            position.makeMove(move);
+            if (position.isCheck(us)) {
+                position.unmakeMove();
+                continue;
+            }
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            position.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (score > alpha) {
+                alpha = score;
+                if (score >= beta) {
+                    break;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    private void scoreMoves(int ply, int count, int preferred) {
+        int[] list = moves[ply];
+        int[] values = scores[ply];
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int piece = position.pieceAt(Move.from(move));
+            if (move == preferred) {
+                values[i] = PREFERRED_SCORE;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                values[i] = CAPTURE_SCORE + victimValue(move) * 8 - PIECE_VALUES[Position.typeOf(piece).ordinal()] / 100;
+            } else if (move == killers[ply][0] || move == killers[ply][1]) {
+                values[i] = KILLER_SCORE;
+            } else if (orderingSeed != 0) {
+                values[i] = history[piece][Move.to(move)] + (int) ((move * orderingSeed) >>> 60);
+            } else {
+                values[i] = history[piece][Move.to(move)];
+            }
+        }
+    }
+
+    private int victimValue(int move) {
+        int value = 0;
+        if (Move.flags(move) == Move.EN_PASSANT) {
+            value = PIECE_VALUES[PAWN.ordinal()];
+        } else if (Move.isCapture(move)) {
+            value = PIECE_VALUES[Position.typeOf(position.pieceAt(Move.to(move))).ordinal()];
+        }
+        if (Move.isPromotion(move)) {
+            value += PIECE_VALUES[Move.promotionType(move).ordinal()];
+        }
+        return value;
+    }
+
+    private int pickMove(int ply, int index, int count) {
+        int[] list = moves[ply];
+        int[] values = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (values[i] > values[best]) {
+                best = i;
+            }
+        }
+        int move = list[best];
+        int value = values[best];
+        list[best] = list[index];
+        values[best] = values[index];
+        list[index] = move;
+        values[index] = value;
+        return move;
+    }
+
+    private void updateQuietStatistics(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int piece = position.pieceAt(Move.from(move));
+        int[] pieceHistory = history[piece];
+        pieceHistory[Move.to(move)] += depth * depth;
+        if (pieceHistory[Move.to(move)] >= HISTORY_LIMIT) {
+            for (int[] values : history) {
+                for (int square = 0; square < values.length; square++) {
+                    values[square] /= 2;
+                }
+            }
+        }
+    }
+
+    private int evaluate() {
+        return position.evaluate();
+    }
+
+    private int firstLegalMove() {
+        Color us = position.sideToMove();
+        int count = MoveGenerator.generate(position, us, moves[0], 0);
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[0][i]);
+            boolean isLegal = !position.isCheck(us);
+            position.unmakeMove();
+            if (isLegal) {
+                return moves[0][i];
+            }
+        }
+        return Move.NONE;
+    }
+}
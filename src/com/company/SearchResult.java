@@ -0,0 +1,47 @@
+package com.company;
+
+public class SearchResult {
+    private final int move;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    public SearchResult(int move, int score, int depth, long nodes, long elapsedNanos) {
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public long getNodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return (move == Move.NONE ? "none" : Move.toString(move)) + " score " + score + " depth " + depth
+                + " nodes " + nodes + " nps " + getNodesPerSecond() + " time " + getElapsedMillis() + "ms";
+    }
+}
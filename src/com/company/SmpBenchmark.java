@@ -0,0 +1,62 @@
+package com.company;
+
+public class SmpBenchmark {
+    private static final String[] LINES = {
+            "",
+            "e2e4 e7e5 g1f3 b8c6 f1b5 a7a6 b5a4 g8f6 e1g1 f8e7",
+            "d2d4 g8f6 c2c4 e7e6 b1c3 f8b4 e2e3 e8g8 f1d3 d7d5",
+            "e2e4 c7c5 g1f3 d7d6 d2d4 c5d4 f3d4 g8f6 b1c3 a7a6",
+            "c2c4 e7e5 b1c3 g8f6 g2g3 d7d5 c4d5 f6d5 f1g2 d5b6",
+            "e2e4 e7e6 d2d4 d7d5 b1c3 f8b4 e4e5 c7c5 a2a3 b4c3"
+    };
+
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int hashMb = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        System.out.println("Time to depth " + depth + ", 1 thread vs " + threads + " threads, " + hashMb + "MB hash");
+
+        double logSpeedup = 0;
+        for (String line : LINES) {
+            Position position = play(line);
+            long single = timeToDepth(position, 1, depth, hashMb);
+            long parallel = timeToDepth(position, threads, depth, hashMb);
+            double speedup = (double) single / parallel;
+            logSpeedup += Math.log(speedup);
+            System.out.printf("%-60s %8dms %8dms  x%.2f%n", line.isEmpty() ? "startpos" : line,
+                    single / 1_000_000, parallel / 1_000_000, speedup);
+        }
+        System.out.printf("Geometric mean speedup: x%.2f%n", Math.exp(logSpeedup / LINES.length));
+    }
+
+    private static long timeToDepth(Position position, int threads, int depth, int hashMb) {
+        try (ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(hashMb))) {
+            long start = System.nanoTime();
+            search.bestMove(position, Long.MAX_VALUE, depth);
+            return System.nanoTime() - start;
+        }
+    }
+
+    static Position play(String line) {
+        Position position = new Position();
+        Board.setupStartPosition(position);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (String uci : line.trim().split("\\s+")) {
+            if (uci.isEmpty()) {
+                continue;
+            }
+            int count = MoveGenerator.generate(position, position.sideToMove(), moves, 0);
+            int move = Move.NONE;
+            for (int i = 0; i < count; i++) {
+                if (Move.toString(moves[i]).equals(uci)) {
+                    move = moves[i];
+                }
+            }
+            if (move == Move.NONE) {
+                throw new IllegalArgumentException("Unknown move " + uci + " in " + line);
+            }
+            position.makeMove(move);
+        }
+        return position;
+    }
+}
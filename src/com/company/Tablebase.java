@@ -0,0 +1,144 @@
+package com.company;
+
+import java.nio.ByteBuffer;
+
+import static com.company.Color.BLACK;
+import static com.company.Color.WHITE;
+
+final class Tablebase {
+    static final int MAGIC = 0x54424153;
+    static final int HEADER_BYTES = 16;
+    static final int MAX_PIECES = 4;
+    static final int DRAW = 0;
+    static final int LOSS = 0x80;
+    static final int ILLEGAL = 0xFF;
+    static final int NOT_FOUND = -1;
+    private static final int[] STRENGTH = {0, 9, 3, 3, 5, 1};
+    private final String signature;
+    private final int[] slots;
+    private final int[] counts = new int[12];
+    private final ByteBuffer data;
+    private final int maxDistance;
+
+    Tablebase(String signature, ByteBuffer data) {
+        this.signature = signature;
+        this.slots = slots(signature);
+        if (data.capacity() != HEADER_BYTES + size(slots.length) || data.getInt(0) != MAGIC || data.getInt(4) != slots.length) {
+            throw new IllegalArgumentException("Tablebase " + signature + " is truncated or corrupted");
+        }
+        for (int piece : slots) {
+            counts[piece]++;
+        }
+        this.data = data;
+        this.maxDistance = data.getInt(8);
+    }
+
+    String getSignature() {
+        return signature;
+    }
+
+    int getMaxDistance() {
+        return maxDistance;
+    }
+
+    static int size(int pieces) {
+        return 2 << 6 * pieces;
+    }
+
+    static boolean isWin(int value) {
+        return value > DRAW && value < LOSS;
+    }
+
+    static boolean isLoss(int value) {
+        return value >= LOSS && value < ILLEGAL;
+    }
+
+    static int distance(int value) {
+        return value & 0x7F;
+    }
+
+    int probe(Position position) {
+        boolean flipped;
+        if (matches(position, false)) {
+            flipped = false;
+        } else if (matches(position, true)) {
+            flipped = true;
+        } else {
+            return NOT_FOUND;
+        }
+        return data.get(HEADER_BYTES + index(position, slots, flipped)) & 0xFF;
+    }
+
+    private boolean matches(Position position, boolean flipped) {
+        for (int piece = 0; piece < counts.length; piece++) {
+            Color color = Position.colorOf(piece);
+            if (Long.bitCount(position.pieces(Position.typeOf(piece), flipped ? Position.opponent(color) : color)) != counts[piece]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int index(Position position, int[] slots, boolean flipped) {
+        Color side = position.sideToMove();
+        int index = flipped ? Position.opponent(side).ordinal() : side.ordinal();
+        long used = 0L;
+        for (int piece : slots) {
+            Color color = Position.colorOf(piece);
+            long bits = position.pieces(Position.typeOf(piece), flipped ? Position.opponent(color) : color) & ~used;
+            int square = Long.numberOfTrailingZeros(bits);
+            used |= 1L << square;
+            index = index << 6 | (flipped ? square ^ 56 : square);
+        }
+        return index;
+    }
+
+    static int[] slots(String signature) {
+        int split = signature.indexOf('K', 1);
+        if (signature.isEmpty() || signature.charAt(0) != 'K' || split < 0 || signature.length() > MAX_PIECES) {
+            throw new IllegalArgumentException("Wrong tablebase signature " + signature);
+        }
+        int[] slots = new int[signature.length()];
+        for (int i = 0; i < slots.length; i++) {
+            Piece.Type type = type(signature.charAt(i));
+            slots[i] = Position.piece(type, i < split ? WHITE : BLACK);
+        }
+        return slots;
+    }
+
+    static String signature(Position position) {
+        return signature(material(position, WHITE), material(position, BLACK));
+    }
+
+    static String signature(String white, String black) {
+        int order = Integer.compare(strength(white), strength(black));
+        return order > 0 || order == 0 && white.compareTo(black) >= 0 ? white + black : black + white;
+    }
+
+    private static String material(Position position, Color color) {
+        StringBuilder material = new StringBuilder(MAX_PIECES);
+        for (Piece.Type type : Piece.Type.values()) {
+            for (int i = Long.bitCount(position.pieces(type, color)); i > 0; i--) {
+                material.append(type.displayName);
+            }
+        }
+        return material.toString();
+    }
+
+    private static int strength(String material) {
+        int strength = 0;
+        for (int i = 0; i < material.length(); i++) {
+            strength += STRENGTH[type(material.charAt(i)).ordinal()];
+        }
+        return strength;
+    }
+
+    static Piece.Type type(char letter) {
+        for (Piece.Type type : Piece.Type.values()) {
+            if (type.displayName.charAt(0) == letter) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown piece " + letter);
+    }
+}
@@ -0,0 +1,326 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.company.Piece.Type.PAWN;
+
+public final class TablebaseGenerator {
+    private static final int UNKNOWN = 0xFE;
+    private static final int MAX_DISTANCE = 124;
+    private static final int CHUNK = 1 << 12;
+    private static final String PIECE_ORDER = "KQBNRP";
+    private static final String PROMOTIONS = "QBNR";
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+    private static final Color[] COLORS = Color.values();
+    private static final ThreadLocal<Position> POSITIONS = ThreadLocal.withInitial(Position::new);
+    private static final ThreadLocal<int[]> MOVES = ThreadLocal.withInitial(() -> new int[MoveGenerator.MAX_MOVES]);
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private final Tablebases tablebases;
+
+    public TablebaseGenerator(Path directory, ForkJoinPool pool) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.pool = pool;
+        this.tablebases = Tablebases.open(directory);
+    }
+
+    public Tablebases getTablebases() {
+        return tablebases;
+    }
+
+    public List<TablebaseResult> generate(String signature) throws IOException {
+        int split = signature.indexOf('K', 1);
+        if (split < 0) {
+            throw new IllegalArgumentException("Wrong tablebase signature " + signature);
+        }
+        List<TablebaseResult> results = new ArrayList<>();
+        generate(signature.substring(0, split), signature.substring(split), results);
+        return results;
+    }
+
+    private void generate(String white, String black, List<TablebaseResult> results) throws IOException {
+        split(white, black);
+        String signature = Tablebase.signature(sort(white), sort(black));
+        if (Tablebases.isDrawn(signature) || tablebases.find(signature) != null) {
+            return;
+        }
+        int[] slots = Tablebase.slots(signature);
+        for (int i = 1; i < white.length(); i++) {
+            generateDependencies(white, black, i, results);
+        }
+        for (int i = 1; i < black.length(); i++) {
+            generateDependencies(black, white, i, results);
+        }
+
+        long start = System.nanoTime();
+        byte[] table = new byte[Tablebase.size(slots.length)];
+        int maxDistance = tablebases.getMaxDistance();
+        AtomicLongArray marks = new AtomicLongArray(table.length >>> 6);
+        pool.invoke(new Sweep(slots, table, 0, maxDistance, 0, table.length, null, marks, null));
+        int distance = 0;
+        for (int ply = 1; !isEmpty(marks); ply++) {
+            if (ply > MAX_DISTANCE) {
+                throw new IllegalStateException("Distance to mate in " + signature + " exceeds " + MAX_DISTANCE + " plies");
+            }
+            AtomicLongArray next = new AtomicLongArray(marks.length());
+            LongAdder changed = new LongAdder();
+            pool.invoke(new Sweep(slots, table, ply, maxDistance, 0, table.length, marks, next, changed));
+            if (changed.sum() > 0) {
+                distance = ply;
+            }
+            marks = next;
+        }
+        for (int i = 0; i < table.length; i++) {
+            if ((table[i] & 0xFF) == UNKNOWN) {
+                table[i] = Tablebase.DRAW;
+            }
+        }
+        Path file = directory.resolve(signature + Tablebases.EXTENSION);
+        write(file, slots.length, distance, table);
+        tablebases.add(Tablebases.map(file));
+        results.add(new TablebaseResult(signature, table.length, distance, System.nanoTime() - start));
+    }
+
+    private static void split(String white, String black) {
+        if (white.isEmpty() || white.charAt(0) != 'K' || black.isEmpty() || black.charAt(0) != 'K'
+                || white.length() + black.length() > Tablebase.MAX_PIECES) {
+            throw new IllegalArgumentException("Wrong tablebase signature " + white + black);
+        }
+    }
+
+    private void generateDependencies(String side, String other, int index, List<TablebaseResult> results)
+            throws IOException {
+        String captured = side.substring(0, index) + side.substring(index + 1);
+        generate(captured, other, results);
+        if (side.charAt(index) == 'P') {
+            for (int i = 0; i < PROMOTIONS.length(); i++) {
+                generate(captured + PROMOTIONS.charAt(i), other, results);
+            }
+        }
+    }
+
+    private static boolean isEmpty(AtomicLongArray marks) {
+        for (int i = 0; i < marks.length(); i++) {
+            if (marks.get(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void mark(AtomicLongArray marks, int index) {
+        long bit = 1L << index;
+        if ((marks.get(index >>> 6) & bit) == 0) {
+            marks.getAndAccumulate(index >>> 6, bit, (word, mask) -> word | mask);
+        }
+    }
+
+    private static long pawnOrigins(int square, Color color, long empty) {
+        long pawn = 1L << square;
+        if (color == Color.WHITE) {
+            long single = pawn >>> 8 & empty & ~RANK_1;
+            return single | (pawn & Position.RANK_4) >>> 16 & single >>> 8 & empty;
+        }
+        long single = pawn << 8 & empty & ~RANK_8;
+        return single | (pawn & Position.RANK_5) << 16 & single << 8 & empty;
+    }
+
+    private static String sort(String material) {
+        char[] pieces = material.toCharArray();
+        for (int i = 1; i < pieces.length; i++) {
+            for (int j = i; j > 0 && PIECE_ORDER.indexOf(pieces[j - 1]) > PIECE_ORDER.indexOf(pieces[j]); j--) {
+                char piece = pieces[j];
+                pieces[j] = pieces[j - 1];
+                pieces[j - 1] = piece;
+            }
+        }
+        return new String(pieces);
+    }
+
+    private static void write(Path file, int pieces, int distance, byte[] table) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(Tablebase.HEADER_BYTES);
+        header.putInt(Tablebase.MAGIC).putInt(pieces).putInt(distance).putInt(0).flip();
+        ByteBuffer[] buffers = {header, ByteBuffer.wrap(table)};
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: TablebaseGenerator <directory> <signature>... (e.g. KQK KRK KPK KBNK)");
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            TablebaseGenerator generator = new TablebaseGenerator(Paths.get(args[0]), pool);
+            for (int i = 1; i < args.length; i++) {
+                for (TablebaseResult result : generator.generate(args[i])) {
+                    System.out.println(result);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private final class Sweep extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] slots;
+        private final byte[] table;
+        private final int ply;
+        private final int maxDistance;
+        private final int from;
+        private final int to;
+        private final AtomicLongArray marks;
+        private final AtomicLongArray next;
+        private final LongAdder changed;
+        private boolean dependent;
+
+        Sweep(int[] slots, byte[] table, int ply, int maxDistance, int from, int to,
+              AtomicLongArray marks, AtomicLongArray next, LongAdder changed) {
+            this.slots = slots;
+            this.table = table;
+            this.ply = ply;
+            this.maxDistance = maxDistance;
+            this.from = from;
+            this.to = to;
+            this.marks = marks;
+            this.next = next;
+            this.changed = changed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Sweep(slots, table, ply, maxDistance, from, middle, marks, next, changed),
+                        new Sweep(slots, table, ply, maxDistance, middle, to, marks, next, changed));
+                return;
+            }
+            Position position = POSITIONS.get();
+            int[] moves = MOVES.get();
+            if (ply == 0) {
+                for (int index = from; index < to; index++) {
+                    int value = classify(position, moves, index);
+                    table[index] = (byte) value;
+                    if (value == UNKNOWN) {
+                        mark(next, index);
+                    }
+                }
+                return;
+            }
+            int found = 0;
+            for (int word = from >>> 6; word < to >>> 6; word++) {
+                for (long bits = marks.get(word); bits != 0; bits &= bits - 1) {
+                    int index = word << 6 | Long.numberOfTrailingZeros(bits);
+                    if ((table[index] & 0xFF) != UNKNOWN) {
+                        continue;
+                    }
+                    int value = resolve(position, moves, index);
+                    if (value != UNKNOWN) {
+                        table[index] = (byte) value;
+                        markPredecessors(position, index);
+                        found++;
+                    } else if (dependent && ply <= maxDistance) {
+                        mark(next, index);
+                    }
+                }
+            }
+            if (found > 0) {
+                changed.add(found);
+            }
+        }
+
+        private int classify(Position position, int[] moves, int index) {
+            if (!setup(position, index)) {
+                return Tablebase.ILLEGAL;
+            }
+            Color us = position.sideToMove();
+            if (position.isCheck(Position.opponent(us))) {
+                return Tablebase.ILLEGAL;
+            }
+            if (MoveGenerator.generateLegal(position, moves, 0) == 0) {
+                return position.isCheck(us) ? Tablebase.LOSS : Tablebase.DRAW;
+            }
+            return UNKNOWN;
+        }
+
+        private int resolve(Position position, int[] moves, int index) {
+            setup(position, index);
+            int count = MoveGenerator.generateLegal(position, moves, 0);
+            dependent = false;
+            for (int i = 0; i < count; i++) {
+                dependent |= Move.isCapture(moves[i]) || Move.isPromotion(moves[i]);
+            }
+            boolean winning = (ply & 1) == 1;
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                position.makeMove(move);
+                int value = Move.isCapture(move) || Move.isPromotion(move)
+                        ? tablebases.probe(position)
+                        : table[Tablebase.index(position, slots, false)] & 0xFF;
+                position.unmakeMove();
+                if (winning && value != UNKNOWN && Tablebase.isLoss(value) && Tablebase.distance(value) < ply) {
+                    return ply;
+                }
+                if (!winning && (!Tablebase.isWin(value) || Tablebase.distance(value) >= ply)) {
+                    return UNKNOWN;
+                }
+            }
+            return winning ? UNKNOWN : Tablebase.LOSS | ply;
+        }
+
+        private void markPredecessors(Position position, int index) {
+            int previous = index ^ 1 << 6 * slots.length;
+            Color moved = Position.opponent(position.sideToMove());
+            long empty = ~position.occupied();
+            for (int i = 0; i < slots.length; i++) {
+                if (Position.colorOf(slots[i]) != moved) {
+                    continue;
+                }
+                int shift = 6 * (slots.length - 1 - i);
+                int square = index >>> shift & 63;
+                long origins = Position.typeOf(slots[i]) == PAWN
+                        ? pawnOrigins(square, moved, empty)
+                        : position.targets(square) & empty;
+                for (; origins != 0; origins &= origins - 1) {
+                    mark(next, previous & ~(63 << shift) | Long.numberOfTrailingZeros(origins) << shift);
+                }
+            }
+        }
+
+        private boolean setup(Position position, int index) {
+            position.clear();
+            long occupied = 0L;
+            for (int i = slots.length - 1; i >= 0; i--) {
+                int square = index & 63;
+                index >>>= 6;
+                if ((occupied & 1L << square) != 0
+                        || Position.typeOf(slots[i]) == PAWN && (square < 8 || square >= 56)) {
+                    return false;
+                }
+                occupied |= 1L << square;
+                position.put(square, slots[i]);
+            }
+            position.setState(COLORS[index], 0, Position.NO_SQUARE, 0);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.company;
+
+public class TablebaseResult {
+    private final String signature;
+    private final int entries;
+    private final int longestMate;
+    private final long elapsedNanos;
+
+    public TablebaseResult(String signature, int entries, int longestMate, long elapsedNanos) {
+        this.signature = signature;
+        this.entries = entries;
+        this.longestMate = longestMate;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public int getLongestMate() {
+        return longestMate;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    @Override
+    public String toString() {
+        return signature + ": " + entries + " entries, longest mate in " + longestMate + " plies, generated in "
+                + getElapsedMillis() + "ms";
+    }
+}
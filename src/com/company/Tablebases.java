@@ -0,0 +1,132 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public final class Tablebases {
+    static final String EXTENSION = ".tb";
+    private volatile Tablebase[] tables = new Tablebase[0];
+
+    Tablebases() {
+    }
+
+    public static Tablebases open(Path directory) throws IOException {
+        Tablebases tablebases = new Tablebases();
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+                for (Path file : files) {
+                    tablebases.add(map(file));
+                }
+            }
+        }
+        return tablebases;
+    }
+
+    static Tablebase map(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Tablebase is larger than 2GB: " + file);
+            }
+            return new Tablebase(name.substring(0, name.length() - EXTENSION.length()),
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    synchronized void add(Tablebase table) {
+        Tablebase[] copy = Arrays.copyOf(tables, tables.length + 1);
+        copy[tables.length] = table;
+        tables = copy;
+    }
+
+    Tablebase find(String signature) {
+        for (Tablebase table : tables) {
+            if (table.getSignature().equals(signature)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    int getMaxDistance() {
+        int distance = 0;
+        for (Tablebase table : tables) {
+            distance = Math.max(distance, table.getMaxDistance());
+        }
+        return distance;
+    }
+
+    public int size() {
+        return tables.length;
+    }
+
+    int probe(Position position) {
+        if (position.castlingRights() != 0 || Long.bitCount(position.occupied()) > Tablebase.MAX_PIECES) {
+            return Tablebase.NOT_FOUND;
+        }
+        if (position.hasInsufficientMaterial()) {
+            return Tablebase.DRAW;
+        }
+        for (Tablebase table : tables) {
+            int value = table.probe(position);
+            if (value != Tablebase.NOT_FOUND) {
+                return value;
+            }
+        }
+        return Tablebase.NOT_FOUND;
+    }
+
+    int bestMove(Position position, int[] moves) {
+        if (probe(position) == Tablebase.NOT_FOUND) {
+            return Move.NONE;
+        }
+        int count = MoveGenerator.generateLegal(position, moves, 0);
+        int bestMove = Move.NONE;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            int value = probe(position);
+            position.unmakeMove();
+            int score = value == Tablebase.NOT_FOUND ? 0 : -score(value, 1);
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+
+    static int score(int value, int ply) {
+        if (Tablebase.isWin(value)) {
+            return Search.MATE - ply - Tablebase.distance(value);
+        }
+        if (Tablebase.isLoss(value)) {
+            return -Search.MATE + ply + Tablebase.distance(value);
+        }
+        return 0;
+    }
+
+    static boolean isDrawn(String signature) {
+        int minors = 0;
+        for (int i = 0; i < signature.length(); i++) {
+            switch (Tablebase.type(signature.charAt(i))) {
+                case QUEEN:
+                case ROOK:
+                case PAWN:
+                    return false;
+                case BISHOP:
+                case KNIGHT:
+                    minors++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        return minors <= 1;
+    }
+}
@@ -0,0 +1,99 @@
+package com.company;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+final class Timer implements TimerMXBean {
+    private static final int BUCKETS = 48;
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    Timer(String name) {
+        this.name = name;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    long start() {
+        return System.nanoTime();
+    }
+
+    void stop(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0L, nanos)))].increment();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    @Override
+    public long getMeanNanos() {
+        long count = getCount();
+        return count == 0 ? 0 : getTotalNanos() / count;
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return Math.min(i == 0 ? 0 : (1L << i) - 1, getMaxNanos());
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public long get50thPercentileNanos() {
+        return getPercentileNanos(50);
+    }
+
+    @Override
+    public long get99thPercentileNanos() {
+        return getPercentileNanos(99);
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.company;
+
+public interface TimerMXBean {
+    long getCount();
+
+    long getTotalNanos();
+
+    long getMeanNanos();
+
+    long getMaxNanos();
+
+    long getPercentileNanos(double percentile);
+
+    long get50thPercentileNanos();
+
+    long get99thPercentileNanos();
+
+    void reset();
+}
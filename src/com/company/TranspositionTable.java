@@ -0,0 +1,138 @@
+package com.company;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+class TranspositionTable {
+    static final int UPPER = 1;
+    static final int LOWER = 2;
+    static final int EXACT = 3;
+    static final int DEFAULT_SIZE_MB = 16;
+    static final TranspositionTable SHARED = new TranspositionTable(DEFAULT_SIZE_MB);
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_SIZE = 4;
+    private static final int AGE_MASK = 0x3F;
+
+    private final long[] table;
+    private final int bucketMask;
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private volatile int age;
+
+    TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB, got " + megabytes);
+        }
+        long buckets = Long.highestOneBit((long) megabytes * 1024 * 1024 / (ENTRY_BYTES * BUCKET_SIZE));
+        buckets = Math.min(Math.max(buckets, 1L), 1L << 27);
+        table = new long[(int) buckets * BUCKET_SIZE * 2];
+        bucketMask = (int) buckets - 1;
+    }
+
+    void newSearch() {
+        age = (age + 1) & AGE_MASK;
+    }
+
+    void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        collisions.reset();
+    }
+
+    long probe(long key) {
+        probes.increment();
+        int index = bucket(key);
+        for (int slot = 0; slot < BUCKET_SIZE; slot++, index += 2) {
+            long data = table[index + 1];
+            if ((table[index] ^ data) == key && data != 0) {
+                hits.increment();
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    void store(long key, int move, int score, int depth, int bound) {
+        stores.increment();
+        int index = bucket(key);
+        int replace = index;
+        int worst = Integer.MAX_VALUE;
+        int currentAge = age;
+        for (int slot = 0; slot < BUCKET_SIZE; slot++, index += 2) {
+            long data = table[index + 1];
+            if ((table[index] ^ data) == key || data == 0) {
+                if (data != 0 && move == Move.NONE) {
+                    move = move(data);
+                }
+                replace = index;
+                worst = Integer.MIN_VALUE;
+                break;
+            }
+            int value = depth(data) - 4 * ((currentAge - age(data)) & AGE_MASK);
+            if (value < worst) {
+                worst = value;
+                replace = index;
+            }
+        }
+        if (worst != Integer.MIN_VALUE && age(table[replace + 1]) == currentAge) {
+            collisions.increment();
+        }
+        long data = (move & 0xFFFFL) | (score & 0xFFFFL) << 16 | (depth & 0xFFL) << 32 | (long) bound << 40 | (long) currentAge << 42;
+        table[replace] = key ^ data;
+        table[replace + 1] = data;
+    }
+
+    static int move(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    static int score(long data) {
+        return (short) (data >>> 16);
+    }
+
+    static int depth(long data) {
+        return (int) (data >>> 32 & 0xFF);
+    }
+
+    static int bound(long data) {
+        return (int) (data >>> 40 & 3);
+    }
+
+    private static int age(long data) {
+        return (int) (data >>> 42 & AGE_MASK);
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ key >>> 32) & bucketMask) * BUCKET_SIZE * 2;
+    }
+
+    int sizeMb() {
+        return (int) ((long) table.length * Long.BYTES / (1024 * 1024));
+    }
+
+    long probes() {
+        return probes.sum();
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long stores() {
+        return stores.sum();
+    }
+
+    long collisions() {
+        return collisions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "TT " + sizeMb() + "MB probes " + probes() + " hits " + hits() + " stores " + stores() + " collisions " + collisions();
+    }
+}
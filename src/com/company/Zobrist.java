@@ -0,0 +1,38 @@
+package com.company;
+
+final class Zobrist {
+    static final long[][] PIECES = new long[Piece.Type.values().length * Color.values().length][Position.SQUARES];
+    static final long[] CASTLING = new long[Position.ALL_CASTLING + 1];
+    static final long[] EN_PASSANT = new long[Board.MAX_LETTER - Board.MIN_LETTER + 1];
+    static final long SIDE;
+    private static long seed = 0x2545F4914F6CDD1DL;
+
+    static {
+        for (long[] squares : PIECES) {
+            for (int square = 0; square < squares.length; square++) {
+                squares[square] = nextRandom();
+            }
+        }
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            CASTLING[rights] = nextRandom();
+        }
+        for (int file = 0; file < EN_PASSANT.length; file++) {
+            EN_PASSANT[file] = nextRandom();
+        }
+        SIDE = nextRandom();
+    }
+
+    private Zobrist() {
+    }
+
+    static long enPassant(int square) {
+        return square == Position.NO_SQUARE ? 0L : EN_PASSANT[square & 7];
+    }
+
+    private static long nextRandom() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+}